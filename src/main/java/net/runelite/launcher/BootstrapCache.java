@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Bootstrap;
+
+/**
+ * Local copy of the last fetched bootstrap along with the validators the server returned for it, used
+ * to make conditional bootstrap requests and to skip the request entirely while the copy is fresh.
+ */
+@Slf4j
+class BootstrapCache
+{
+	@Data
+	static class Validators
+	{
+		private String etag;
+		private String lastModified;
+	}
+
+	@Data
+	static class Metadata
+	{
+		/**
+		 * Validators keyed by url, since the primary and fallback hosts each have their own
+		 */
+		private Map<String, Validators> validators = new HashMap<>();
+		private long fetched;
+	}
+
+	private final File bootstrapFile;
+	private final File metadataFile;
+	private Metadata metadata;
+	private Bootstrap bootstrap;
+
+	BootstrapCache(File dir, String name)
+	{
+		bootstrapFile = new File(dir, name + ".json");
+		metadataFile = new File(dir, name + ".meta.json");
+	}
+
+	private synchronized Metadata metadata()
+	{
+		if (metadata == null)
+		{
+			if (metadataFile.exists())
+			{
+				try (Reader reader = Files.newBufferedReader(metadataFile.toPath(), StandardCharsets.UTF_8))
+				{
+					metadata = new Gson().fromJson(reader, Metadata.class);
+				}
+				catch (IOException | JsonParseException ex)
+				{
+					log.debug("unable to read bootstrap cache metadata", ex);
+				}
+			}
+
+			if (metadata == null || metadata.getValidators() == null)
+			{
+				metadata = new Metadata();
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Get the cached bootstrap, or null if there isn't one
+	 */
+	synchronized Bootstrap get()
+	{
+		if (bootstrap == null && bootstrapFile.exists())
+		{
+			try (Reader reader = new InputStreamReader(Files.newInputStream(bootstrapFile.toPath()), StandardCharsets.UTF_8))
+			{
+				bootstrap = new Gson().fromJson(reader, Bootstrap.class);
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to read cached bootstrap", ex);
+			}
+		}
+		return bootstrap;
+	}
+
+	/**
+	 * Check if the cached bootstrap was fetched or revalidated within the last ttl ms
+	 */
+	synchronized boolean isFresh(long ttl)
+	{
+		return ttl > 0
+			&& System.currentTimeMillis() - metadata().getFetched() < ttl
+			&& get() != null;
+	}
+
+	/**
+	 * Make the request conditional on the cached bootstrap having changed
+	 */
+	synchronized void addValidators(HttpRequest.Builder request, URI uri)
+	{
+		Validators validators = metadata().getValidators().get(uri.toString());
+		if (validators == null || get() == null)
+		{
+			return;
+		}
+
+		if (validators.getEtag() != null)
+		{
+			request.header("If-None-Match", validators.getEtag());
+		}
+		if (validators.getLastModified() != null)
+		{
+			request.header("If-Modified-Since", validators.getLastModified());
+		}
+	}
+
+	/**
+	 * Record that the server confirmed the cached bootstrap is still current
+	 */
+	synchronized void revalidated()
+	{
+		metadata().setFetched(System.currentTimeMillis());
+		saveMetadata();
+	}
+
+	synchronized void store(URI uri, HttpHeaders headers, byte[] bytes, Bootstrap bootstrap)
+	{
+		this.bootstrap = bootstrap;
+
+		Metadata metadata = metadata();
+		// Validators from other urls refer to the previous bootstrap
+		metadata.getValidators().clear();
+		Validators validators = new Validators();
+		validators.setEtag(headers.firstValue("ETag").orElse(null));
+		validators.setLastModified(headers.firstValue("Last-Modified").orElse(null));
+		if (validators.getEtag() != null || validators.getLastModified() != null)
+		{
+			metadata.getValidators().put(uri.toString(), validators);
+		}
+		metadata.setFetched(System.currentTimeMillis());
+
+		try
+		{
+			write(bootstrapFile, bytes);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache bootstrap", ex);
+			return;
+		}
+		saveMetadata();
+	}
+
+	/**
+	 * Store a bootstrap which didn't come directly from the server, eg. one that was verified to be installed
+	 */
+	synchronized void store(Bootstrap bootstrap)
+	{
+		this.bootstrap = bootstrap;
+		metadata().getValidators().clear();
+		metadata().setFetched(System.currentTimeMillis());
+
+		try
+		{
+			write(bootstrapFile, new Gson().toJson(bootstrap).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache bootstrap", ex);
+			return;
+		}
+		saveMetadata();
+	}
+
+	synchronized void clear()
+	{
+		bootstrap = null;
+		metadata = null;
+		bootstrapFile.delete();
+		metadataFile.delete();
+	}
+
+	private void saveMetadata()
+	{
+		try
+		{
+			write(metadataFile, new Gson().toJson(metadata).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save bootstrap cache metadata", ex);
+		}
+	}
+
+	private static void write(File file, byte[] bytes) throws IOException
+	{
+		File tmpFile = File.createTempFile(file.getName(), null, file.getParentFile());
+		Files.write(tmpFile.toPath(), bytes);
+		Launcher.move(tmpFile, file);
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A bounded pipe between one writing thread and one reading thread, which hands off chunks of bytes through a
+ * {@link BlockingQueue}. Unlike {@link java.io.PipedInputStream}, which polls once a second while it is empty
+ * or full, either side is woken as soon as the other makes progress.
+ * <p>
+ * Writes are collected into a chunk which is handed to the reader once it is full, or on {@link OutputStream#flush()}.
+ * Closing the output stream ends the stream for the reader, and closing the input stream fails any further writes.
+ */
+class BytePipe
+{
+	private static final int CHUNK_SIZE = 16 * 1024;
+	// Marks the end of the stream
+	private static final ByteBuffer EOF = ByteBuffer.allocate(0);
+
+	private final BlockingQueue<ByteBuffer> chunks;
+	// Chunks which have been read and can be reused by the writer
+	private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+	private final Input input = new Input();
+	private final Output output = new Output();
+	private volatile boolean readerClosed;
+
+	/**
+	 * @param size the number of bytes which may be waiting to be read before writes block
+	 */
+	BytePipe(int size)
+	{
+		chunks = new ArrayBlockingQueue<>(Math.max(1, size / CHUNK_SIZE));
+	}
+
+	InputStream getInputStream()
+	{
+		return input;
+	}
+
+	OutputStream getOutputStream()
+	{
+		return output;
+	}
+
+	private class Output extends OutputStream
+	{
+		private ByteBuffer chunk;
+		private boolean closed;
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			if (closed)
+			{
+				throw new IOException("Pipe closed");
+			}
+
+			while (len > 0)
+			{
+				if (readerClosed)
+				{
+					throw new IOException("Read end closed");
+				}
+
+				if (chunk == null)
+				{
+					chunk = free.poll();
+					if (chunk == null)
+					{
+						chunk = ByteBuffer.allocate(CHUNK_SIZE);
+					}
+				}
+
+				int n = Math.min(len, chunk.remaining());
+				chunk.put(b, off, n);
+				off += n;
+				len -= n;
+
+				if (!chunk.hasRemaining())
+				{
+					handOff();
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			if (chunk != null && chunk.position() > 0 && !readerClosed)
+			{
+				handOff();
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			if (closed)
+			{
+				return;
+			}
+
+			try
+			{
+				flush();
+			}
+			finally
+			{
+				closed = true;
+				if (!readerClosed)
+				{
+					put(EOF);
+				}
+			}
+		}
+
+		private void handOff() throws IOException
+		{
+			chunk.flip();
+			ByteBuffer full = chunk;
+			chunk = null;
+			put(full);
+		}
+
+		private void put(ByteBuffer buffer) throws IOException
+		{
+			try
+			{
+				// Closing the read end clears the queue, so this can't block on a reader which has gone away
+				chunks.put(buffer);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+
+	private class Input extends InputStream
+	{
+		private ByteBuffer chunk;
+		private boolean eof;
+
+		@Override
+		public int read() throws IOException
+		{
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			if (readerClosed)
+			{
+				throw new IOException("Pipe closed");
+			}
+			if (len == 0)
+			{
+				return 0;
+			}
+
+			int read = 0;
+			while (read < len && !eof)
+			{
+				if (chunk == null)
+				{
+					// Return what has been read so far rather than wait for more
+					chunk = read > 0 ? chunks.poll() : take();
+					if (chunk == null)
+					{
+						break;
+					}
+					if (chunk == EOF)
+					{
+						chunk = null;
+						eof = true;
+						break;
+					}
+				}
+
+				int n = Math.min(len - read, chunk.remaining());
+				chunk.get(b, off + read, n);
+				read += n;
+
+				if (!chunk.hasRemaining())
+				{
+					chunk.clear();
+					free.offer(chunk);
+					chunk = null;
+				}
+			}
+
+			return read == 0 && eof ? -1 : read;
+		}
+
+		@Override
+		public int available()
+		{
+			return chunk == null ? 0 : chunk.remaining();
+		}
+
+		@Override
+		public void close()
+		{
+			readerClosed = true;
+			// Unblock the writer, whose next write then fails
+			chunks.clear();
+			free.clear();
+			chunk = null;
+		}
+
+		private ByteBuffer take() throws IOException
+		{
+			try
+			{
+				return chunks.take();
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manages an AppCDS archive of the classes loaded by a JVM, so that later launches map the already parsed
+ * and verified classes instead of loading them from the jars. The archive is only valid for the exact
+ * classpath and JVM it was created with, so it is keyed by both and archives with another key are deleted.
+ */
+@Slf4j
+class CdsArchive
+{
+	// -XX:ArchiveClassesAtExit
+	private static final int DYNAMIC_ARCHIVE_VERSION = 13;
+	// -XX:+AutoCreateSharedArchive, which also recreates the archive if the JVM rejects it
+	private static final int AUTO_CREATE_VERSION = 19;
+	private static final String SUFFIX = ".jsa";
+
+	private final File dir;
+	private final String name;
+
+	CdsArchive(File dir, String name)
+	{
+		this.dir = dir;
+		this.name = name;
+	}
+
+	/**
+	 * Compute the key of an archive from what identifies the classes it contains, and the version of this JVM
+	 */
+	static String key(List<String> parts)
+	{
+		MessageDigest digest = HashEngine.newDigest();
+		List<String> all = new ArrayList<>(parts);
+		all.add(System.getProperty("java.vm.name"));
+		all.add(System.getProperty("java.runtime.version"));
+		for (String part : all)
+		{
+			digest.update(part.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		return HashEngine.toString(digest).substring(0, 16);
+	}
+
+	File file(String key)
+	{
+		return new File(dir, name + "-" + key + SUFFIX);
+	}
+
+	/**
+	 * Get the JVM arguments which use the archive for key, or create it when the JVM exits if it doesn't exist
+	 * yet. This JVM must be the same version as the one the arguments are for.
+	 */
+	List<String> arguments(String key)
+	{
+		int version = Runtime.version().feature();
+		if (version < DYNAMIC_ARCHIVE_VERSION)
+		{
+			log.debug("Java {} can't create class data sharing archives", version);
+			return Collections.emptyList();
+		}
+
+		dir.mkdirs();
+		prune(key);
+
+		File archive = file(key);
+		if (version >= AUTO_CREATE_VERSION)
+		{
+			return List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-XX:+AutoCreateSharedArchive");
+		}
+
+		if (archive.length() > 0 || isCreating(archive))
+		{
+			log.debug("Using class data sharing archive {}", archive);
+			return List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+		}
+
+		// The archive is written when the JVM exits normally, so a run which crashes doesn't leave one behind
+		log.debug("Creating class data sharing archive {} on exit", archive);
+		delete(archive);
+		return List.of("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+	}
+
+	/**
+	 * Check if this JVM will write the archive when it exits, in which case the archive exists by the time the
+	 * arguments are used
+	 */
+	private static boolean isCreating(File archive)
+	{
+		return ManagementFactory.getRuntimeMXBean().getInputArguments().contains("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+	}
+
+	private void prune(String key)
+	{
+		String current = file(key).getName();
+		File[] files = dir.listFiles((d, n) -> n.startsWith(name + "-") && n.endsWith(SUFFIX) && !n.equals(current));
+		if (files == null)
+		{
+			return;
+		}
+
+		for (File file : files)
+		{
+			log.debug("Deleting stale class data sharing archive {}", file);
+			delete(file);
+		}
+	}
+
+	private static void delete(File file)
+	{
+		// The JVM creates archives read only, which prevents deleting them on Windows
+		file.setWritable(true);
+		file.delete();
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the output of the client process on a thread of its own. The client blocks on its stdout once the
+ * pipe buffer fills, so the pipe must be read for as long as it runs, whether or not anyone wants the output.
+ * The output is written to a log file of its own, rotated by size, and the last {@link #TAIL_SIZE} bytes of it
+ * are kept in memory for crash reports. This mustn't be the client's own log, which the client writes itself.
+ */
+@Slf4j
+class ClientOutput
+{
+	static final int TAIL_SIZE = 64 * 1024;
+	private static final long MAX_LOG_SIZE = 10 * 1024 * 1024;
+	// The current log and the rotated ones
+	private static final int LOG_FILES = 3;
+	private static final int BUFFER_SIZE = 8192;
+
+	private final File logFile;
+	private final boolean echo;
+	private final byte[] tail = new byte[TAIL_SIZE];
+	private int tailPosition;
+	private boolean tailFull;
+	private OutputStream logOut;
+	private long logSize;
+	private Thread thread;
+
+	/**
+	 * @param echo whether to also copy the output to the launcher's stdout
+	 */
+	ClientOutput(File logFile, boolean echo)
+	{
+		this.logFile = logFile;
+		this.echo = echo;
+	}
+
+	/**
+	 * Start draining the output of the process. The thread isn't a daemon, so the launcher stays alive for
+	 * as long as the client has its pipe open.
+	 */
+	void start(Process process)
+	{
+		thread = new Thread(() -> pump(process.getInputStream()), "client-output");
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Wait for the client to close its output
+	 *
+	 * @return true if the output has been drained
+	 */
+	boolean await(long millis) throws InterruptedException
+	{
+		thread.join(millis);
+		return !thread.isAlive();
+	}
+
+	/**
+	 * @return the last output of the client, at most {@link #TAIL_SIZE} bytes of it
+	 */
+	synchronized String tail()
+	{
+		if (!tailFull)
+		{
+			return new String(tail, 0, tailPosition, StandardCharsets.UTF_8);
+		}
+
+		byte[] ordered = new byte[TAIL_SIZE];
+		System.arraycopy(tail, tailPosition, ordered, 0, TAIL_SIZE - tailPosition);
+		System.arraycopy(tail, 0, ordered, TAIL_SIZE - tailPosition, tailPosition);
+		return new String(ordered, StandardCharsets.UTF_8);
+	}
+
+	private void pump(InputStream in)
+	{
+		openLog();
+
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream i = in)
+		{
+			for (int n; (n = i.read(buffer)) != -1; )
+			{
+				appendTail(buffer, n);
+				writeLog(buffer, n);
+				if (echo)
+				{
+					System.out.write(buffer, 0, n);
+					System.out.flush();
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.debug("error reading client output", ex);
+		}
+		finally
+		{
+			closeLog();
+		}
+	}
+
+	private synchronized void appendTail(byte[] buffer, int length)
+	{
+		int offset = 0;
+		if (length >= TAIL_SIZE)
+		{
+			offset = length - TAIL_SIZE;
+			length = TAIL_SIZE;
+		}
+
+		int first = Math.min(length, TAIL_SIZE - tailPosition);
+		System.arraycopy(buffer, offset, tail, tailPosition, first);
+		System.arraycopy(buffer, offset + first, tail, 0, length - first);
+
+		tailFull |= tailPosition + length >= TAIL_SIZE;
+		tailPosition = (tailPosition + length) % TAIL_SIZE;
+	}
+
+	private void writeLog(byte[] buffer, int length)
+	{
+		if (logOut == null)
+		{
+			return;
+		}
+
+		try
+		{
+			if (logSize + length > MAX_LOG_SIZE)
+			{
+				logOut.close();
+				openLog();
+				if (logOut == null)
+				{
+					return;
+				}
+			}
+
+			logOut.write(buffer, 0, length);
+			logSize += length;
+		}
+		catch (IOException ex)
+		{
+			// Keep draining the pipe without the log rather than stalling the client
+			log.warn("unable to write client output log {}", logFile, ex);
+			closeLog();
+		}
+	}
+
+	private void openLog()
+	{
+		try
+		{
+			rotate();
+			logOut = new FileOutputStream(logFile);
+			logSize = 0;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to open client output log {}", logFile, ex);
+			logOut = null;
+		}
+	}
+
+	private void closeLog()
+	{
+		if (logOut == null)
+		{
+			return;
+		}
+
+		try
+		{
+			logOut.close();
+		}
+		catch (IOException ex)
+		{
+			log.debug("error closing client output log", ex);
+		}
+		logOut = null;
+	}
+
+	private void rotate()
+	{
+		for (int i = LOG_FILES - 1; i > 0; --i)
+		{
+			File from = i == 1 ? logFile : rotated(i - 1);
+			File to = rotated(i);
+			if (from.exists() && (!to.exists() || to.delete()) && !from.renameTo(to))
+			{
+				log.debug("unable to rotate {} to {}", from, to);
+			}
+		}
+	}
+
+	private File rotated(int n)
+	{
+		String name = logFile.getName();
+		int dot = name.lastIndexOf('.');
+		String rotated = dot == -1 ? name + "." + n : name.substring(0, dot) + "." + n + name.substring(dot);
+		return new File(logFile.getParentFile(), rotated);
+	}
+}
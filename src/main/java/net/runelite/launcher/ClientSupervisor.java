@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the client process while it starts. A client which crashes on startup, eg. because of the graphics
+ * driver or a bad JVM argument, is relaunched with progressively safer settings, and the settings which worked
+ * are remembered so the next launch of the same configuration doesn't go through the failed ones again.
+ */
+@Slf4j
+class ClientSupervisor
+{
+	// A client which crashes within this long of being started failed to start
+	private static final long STARTUP_WINDOW = TimeUnit.SECONDS.toMillis(30);
+	// Time to wait for the rest of the output of a client which has exited
+	private static final long OUTPUT_TIMEOUT = 1000;
+	// Windows exit codes with both of the top bits set are NTSTATUS errors
+	private static final int NTSTATUS_ERROR = 0xC0000000;
+	private static final int SIGNAL_EXIT = 128;
+	// SIGILL, SIGABRT, SIGBUS (7 on Linux, 10 on macOS), SIGFPE and SIGSEGV
+	private static final Set<Integer> CRASH_SIGNALS = ImmutableSet.of(4, 6, OS.getOs() == OS.OSType.MacOS ? 10 : 7, 8, 11);
+	// What the JVM prints when it rejects its arguments
+	private static final String[] JVM_CREATION_FAILED = {
+		"Could not create the Java Virtual Machine",
+		"Error occurred during initialization of VM",
+	};
+
+	enum SafeMode
+	{
+		/**
+		 * The settings as given
+		 */
+		NONE,
+		/**
+		 * Hardware acceleration off, or OpenGL on macOS where it can't be turned off
+		 */
+		SOFTWARE_RENDERING,
+		/**
+		 * Software rendering, without the launcher's tuning of the client JVM, the class data sharing archive and
+		 * the heap and garbage collector ergonomics, so only the bootstrap's JVM arguments remain
+		 */
+		DEFAULT_JVM,
+	}
+
+	interface Starter
+	{
+		/**
+		 * @return the started client, or null if it couldn't be started
+		 */
+		Process start(SafeMode safeMode, ClientOutput output);
+	}
+
+	@Data
+	static class State
+	{
+		/**
+		 * Key of the configuration the safe mode is for
+		 */
+		private String key;
+		private SafeMode safeMode;
+	}
+
+	private final File stateFile;
+	private final File outputFile;
+	private final boolean echo;
+	private final HardwareAccelerationMode hardwareAccelerationMode;
+	private final boolean forceSafeMode;
+
+	/**
+	 * @param outputFile    file to capture the client's stdout and stderr to, whose tail is what crashes are
+	 *                      recognised from
+	 * @param echo          whether to copy the client's output to the launcher's stdout
+	 * @param forceSafeMode start the client in the safest mode
+	 */
+	ClientSupervisor(File stateFile, File outputFile, boolean echo, HardwareAccelerationMode hardwareAccelerationMode, boolean forceSafeMode)
+	{
+		this.stateFile = stateFile;
+		this.outputFile = outputFile;
+		this.echo = echo;
+		this.hardwareAccelerationMode = hardwareAccelerationMode;
+		this.forceSafeMode = forceSafeMode;
+	}
+
+	/**
+	 * Start the client and relaunch it in a safer mode for as long as it crashes while starting. The client
+	 * future is completed once the client has started, and this then waits for it to exit to report a crash.
+	 *
+	 * @param configuration what the client is started from, eg. the artifact hashes. Settings which worked
+	 *                      are only reused for the same configuration, so an update gets to try the given ones.
+	 */
+	void supervise(List<String> configuration, Starter starter, CompletableFuture<Process> client) throws InterruptedException
+	{
+		String key = key(configuration);
+
+		SafeMode safeMode = SafeMode.NONE;
+		if (forceSafeMode)
+		{
+			safeMode = SafeMode.DEFAULT_JVM;
+		}
+		else
+		{
+			State state = load();
+			if (state != null && key.equals(state.getKey()) && state.getSafeMode() != null)
+			{
+				safeMode = state.getSafeMode();
+				log.info("Starting the client in safe mode {}, which is the last that worked for this configuration", safeMode);
+			}
+		}
+
+		ClientOutput output;
+		Process process;
+		long start;
+		while (true)
+		{
+			output = new ClientOutput(outputFile, echo);
+			process = starter.start(safeMode, output);
+			if (process == null)
+			{
+				client.cancel(false);
+				return;
+			}
+
+			start = System.currentTimeMillis();
+			if (!process.waitFor(STARTUP_WINDOW, TimeUnit.MILLISECONDS))
+			{
+				log.debug("Client started in safe mode {}", safeMode);
+				if (!forceSafeMode)
+				{
+					save(key, safeMode);
+				}
+				client.complete(process);
+				break;
+			}
+
+			String tail = tail(output);
+			if (!report(process, tail, System.currentTimeMillis() - start))
+			{
+				// Closed by the user, or the client gave up by itself, which safer settings wouldn't change
+				client.complete(process);
+				return;
+			}
+
+			SafeMode next = escalate(safeMode, tail);
+			if (next == null)
+			{
+				log.error("Client crashed while starting in the safest mode");
+				client.complete(process);
+				SwingUtilities.invokeLater(() ->
+					new FatalErrorDialog("The client crashed while starting, even with hardware acceleration and " +
+						"the launcher's JVM settings turned off. The client's output and any crash logs are in the logs folder.")
+						.open());
+				return;
+			}
+
+			log.warn("Client crashed while starting in safe mode {}, relaunching it in safe mode {}", safeMode, next);
+			safeMode = next;
+		}
+
+		process.waitFor();
+		report(process, tail(output), System.currentTimeMillis() - start);
+	}
+
+	private SafeMode escalate(SafeMode safeMode, String tail)
+	{
+		if (safeMode == SafeMode.DEFAULT_JVM)
+		{
+			return null;
+		}
+
+		// The JVM refused its arguments, so rendering has nothing to do with it
+		if (rejectedArguments(tail))
+		{
+			return SafeMode.DEFAULT_JVM;
+		}
+
+		SafeMode next = SafeMode.values()[safeMode.ordinal() + 1];
+		if (next == SafeMode.SOFTWARE_RENDERING && hardwareAccelerationMode == HardwareAccelerationMode.safeMode(OS.getOs()))
+		{
+			// Already rendering in software, so the same settings would crash again
+			return SafeMode.DEFAULT_JVM;
+		}
+		return next;
+	}
+
+	/**
+	 * Log how the client exited, along with its last output if it crashed
+	 *
+	 * @return true if the client crashed
+	 */
+	private static boolean report(Process process, String tail, long elapsed)
+	{
+		if (!crashed(process, tail))
+		{
+			log.info("Client exited with code {} after {}ms", process.exitValue(), elapsed);
+			return false;
+		}
+
+		File crashFile = crashFile(process);
+		log.warn("Client crashed with code {} after {}ms{}", process.exitValue(), elapsed,
+			crashFile.exists() ? ", crash log " + crashFile : "");
+		if (!tail.isEmpty())
+		{
+			log.warn("Client output:{}{}", System.lineSeparator(), tail);
+		}
+		return true;
+	}
+
+	/**
+	 * Check for evidence of a crash, rather than just an error exit. Closing the client early, or killing it from
+	 * the task manager, exits with an error too.
+	 */
+	private static boolean crashed(Process process, String tail)
+	{
+		if (crashFile(process).exists() || rejectedArguments(tail))
+		{
+			return true;
+		}
+
+		int code = process.exitValue();
+		if (OS.getOs() == OS.OSType.Windows)
+		{
+			// Unhandled exceptions, eg. an access violation in the graphics driver, exit with their NTSTATUS
+			// error code, while the task manager exits with 1
+			return (code & NTSTATUS_ERROR) == NTSTATUS_ERROR;
+		}
+
+		// A process killed by a signal exits with 128 + the signal, but only some signals are crashes
+		return code > SIGNAL_EXIT && CRASH_SIGNALS.contains(code - SIGNAL_EXIT);
+	}
+
+	private static boolean rejectedArguments(String tail)
+	{
+		for (String message : JVM_CREATION_FAILED)
+		{
+			if (tail.contains(message))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String tail(ClientOutput output) throws InterruptedException
+	{
+		output.await(OUTPUT_TIMEOUT);
+		return output.tail();
+	}
+
+	/**
+	 * Hash the configuration along with the requested mode and the JVM, since a JVM update can fix a crash too
+	 */
+	private String key(List<String> configuration)
+	{
+		List<String> parts = new ArrayList<>(configuration);
+		parts.add(hardwareAccelerationMode.name());
+		parts.add(System.getProperty("java.vm.name"));
+		parts.add(System.getProperty("java.vm.version"));
+		return Hashing.sha256().hashString(String.join("\n", parts), StandardCharsets.UTF_8).toString();
+	}
+
+	private static File crashFile(Process process)
+	{
+		return new File(Launcher.CRASH_FILES.getPath().replace("%p", Long.toString(process.pid())));
+	}
+
+	private State load()
+	{
+		if (!stateFile.exists())
+		{
+			return null;
+		}
+
+		try (Reader reader = Files.newBufferedReader(stateFile.toPath(), StandardCharsets.UTF_8))
+		{
+			return new Gson().fromJson(reader, State.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read client safe mode", ex);
+			return null;
+		}
+	}
+
+	private void save(String key, SafeMode safeMode)
+	{
+		if (safeMode == SafeMode.NONE)
+		{
+			// The given settings work, so there's nothing to remember
+			stateFile.delete();
+			return;
+		}
+
+		State state = new State();
+		state.setKey(key);
+		state.setSafeMode(safeMode);
+		try
+		{
+			File tmpFile = File.createTempFile(stateFile.getName(), null, stateFile.getParentFile());
+			Files.write(tmpFile.toPath(), new Gson().toJson(state).getBytes(StandardCharsets.UTF_8));
+			Launcher.move(tmpFile, stateFile);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save client safe mode", ex);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class DiskInfo
+{
+	enum Type
+	{
+		SOLID_STATE,
+		/**
+		 * A spinning disk, where concurrent reads of different files cause seeking and are slower than reading the
+		 * files one at a time.
+		 */
+		ROTATIONAL,
+		/**
+		 * The disk type could not be determined. This is always the case outside of Linux.
+		 */
+		UNKNOWN,
+	}
+
+	static Type getType(File file)
+	{
+		if (OS.getOs() != OS.OSType.Linux)
+		{
+			return Type.UNKNOWN;
+		}
+
+		try
+		{
+			long dev = ((Number) Files.getAttribute(file.toPath(), "unix:dev")).longValue();
+			// glibc's major()/minor() encoding of dev_t
+			long major = ((dev >> 8) & 0xfff) | ((dev >> 32) & ~0xfffL);
+			long minor = (dev & 0xff) | ((dev >> 12) & ~0xffL);
+
+			Path block = Paths.get("/sys/dev/block", major + ":" + minor);
+			Path rotational = block.resolve("queue/rotational");
+			if (!Files.exists(rotational))
+			{
+				// partitions don't have a queue, their parent disk does
+				rotational = block.resolve("../queue/rotational");
+			}
+
+			if (!Files.exists(rotational))
+			{
+				return Type.UNKNOWN;
+			}
+
+			return new String(Files.readAllBytes(rotational), StandardCharsets.US_ASCII).trim().equals("1")
+				? Type.ROTATIONAL : Type.SOLID_STATE;
+		}
+		catch (IOException | UnsupportedOperationException | IllegalArgumentException | ClassCastException ex)
+		{
+			log.debug("unable to determine disk type of {}", file, ex);
+			return Type.UNKNOWN;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Aggregates the progress of concurrent transfers into a single splash screen progress bar, optionally
+ * throttling them to a shared rate. Transfers in the background, while the client is starting or running,
+ * are tracked without drawing to the splash screen.
+ */
+class DownloadProgress
+{
+	private final double startProgress;
+	private final double endProgress;
+	private final AtomicInteger done = new AtomicInteger();
+	private final AtomicInteger total;
+	@Nullable
+	private final RateLimiter limiter;
+	private final boolean splash;
+
+	/**
+	 * @param splash whether to show the progress on the splash screen
+	 */
+	DownloadProgress(double startProgress, double endProgress, int total, @Nullable RateLimiter limiter, boolean splash)
+	{
+		this.startProgress = startProgress;
+		this.endProgress = endProgress;
+		this.total = new AtomicInteger(total);
+		this.limiter = limiter;
+		this.splash = splash;
+	}
+
+	/**
+	 * Adjust the total number of bytes expected, eg. when a diff fails and the full artifact is downloaded instead
+	 */
+	void adjustTotal(int delta)
+	{
+		total.addAndGet(delta);
+	}
+
+	/**
+	 * Start tracking a single transfer. The returned consumer accepts the cumulative number of bytes transferred.
+	 */
+	Transfer track(String name)
+	{
+		return new Transfer(name);
+	}
+
+	/**
+	 * @return true if transfers are throttled, so their throughput doesn't reflect the link
+	 */
+	boolean isLimited()
+	{
+		return limiter != null;
+	}
+
+	class Transfer implements IntConsumer
+	{
+		private final String name;
+		private int reported;
+		// bytes which were already transferred when this transfer was resumed
+		private int resumed = -1;
+
+		private Transfer(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public void accept(int completed)
+		{
+			if (resumed == -1)
+			{
+				resumed = completed;
+			}
+
+			int delta = completed - reported;
+			reported = completed;
+			update(name, done.addAndGet(delta));
+
+			if (limiter != null && delta > 0)
+			{
+				// Blocking the transfer thread here applies backpressure to the connection
+				limiter.acquire(delta);
+			}
+		}
+
+		/**
+		 * @return bytes transferred, not counting those which were already downloaded when the transfer resumed
+		 */
+		int getTransferred()
+		{
+			return resumed == -1 ? 0 : reported - resumed;
+		}
+
+		/**
+		 * Discount the bytes of this transfer from the overall progress, eg. because it failed verification
+		 */
+		void rollback()
+		{
+			done.addAndGet(-reported);
+			reported = 0;
+		}
+	}
+
+	private void update(String name, int completed)
+	{
+		if (!splash)
+		{
+			return;
+		}
+
+		SplashScreen.stage(startProgress, endProgress, null, name, completed, Math.max(completed, total.get()), true);
+	}
+}
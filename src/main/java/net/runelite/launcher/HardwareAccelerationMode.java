@@ -99,6 +99,15 @@ public enum HardwareAccelerationMode
 		return params;
 	}
 
+	/**
+	 * Gets the mode least likely to have problems with the graphics driver, for when the client crashes
+	 */
+	public static HardwareAccelerationMode safeMode(OS.OSType osType)
+	{
+		// Hardware acceleration can't be turned off on MacOS, and Metal is the newer of the two pipelines
+		return osType == OS.OSType.MacOS ? HardwareAccelerationMode.OPENGL : HardwareAccelerationMode.OFF;
+	}
+
 	public static HardwareAccelerationMode defaultMode(OS.OSType osType)
 	{
 		switch (osType)
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.HashCode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SHA-256 hashing of files and pooled transfer buffers. Large files are memory mapped and smaller ones are read
+ * into pooled direct buffers, so the digest is fed without going through intermediate heap copies.
+ */
+class HashEngine
+{
+	static final int BUFFER_SIZE = 1024 * 1024;
+	// Mapping has a fixed cost, so only map files which are large enough to benefit
+	private static final long MAP_THRESHOLD = 4 * 1024 * 1024;
+	// Map large files in windows so 32 bit vms don't run out of address space
+	private static final long MAP_WINDOW = 64 * 1024 * 1024;
+	private static final int MAX_POOLED = 8;
+
+	private static final Queue<ByteBuffer> DIRECT_BUFFERS = new ConcurrentLinkedQueue<>();
+	private static final Queue<byte[]> ARRAYS = new ConcurrentLinkedQueue<>();
+
+	static MessageDigest newDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex)
+		{
+			// SHA-256 is required to be supported by every JRE
+			throw new AssertionError(ex);
+		}
+	}
+
+	static String toString(MessageDigest digest)
+	{
+		return HashCode.fromBytes(digest.digest()).toString();
+	}
+
+	static String hash(File file) throws IOException
+	{
+		MessageDigest digest = newDigest();
+		update(digest, file, Long.MAX_VALUE);
+		return toString(digest);
+	}
+
+	/**
+	 * Update the digest with up to the first length bytes of the file
+	 */
+	static void update(MessageDigest digest, File file, long length) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = Math.min(channel.size(), length);
+			// Windows can't replace or delete a file while it is mapped, and there is no supported way to
+			// unmap a buffer other than waiting for it to be garbage collected
+			if (size >= MAP_THRESHOLD && OS.getOs() != OS.OSType.Windows)
+			{
+				for (long position = 0; position < size; position += MAP_WINDOW)
+				{
+					MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position));
+					digest.update(mapped);
+				}
+				return;
+			}
+
+			ByteBuffer buffer = acquireBuffer();
+			try
+			{
+				long remaining = size;
+				while (remaining > 0)
+				{
+					buffer.clear();
+					if (remaining < buffer.capacity())
+					{
+						buffer.limit((int) remaining);
+					}
+
+					int i = channel.read(buffer);
+					if (i == -1)
+					{
+						break;
+					}
+
+					buffer.flip();
+					digest.update(buffer);
+					remaining -= i;
+				}
+			}
+			finally
+			{
+				releaseBuffer(buffer);
+			}
+		}
+	}
+
+	static ByteBuffer acquireBuffer()
+	{
+		ByteBuffer buffer = DIRECT_BUFFERS.poll();
+		return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+	static void releaseBuffer(ByteBuffer buffer)
+	{
+		if (DIRECT_BUFFERS.size() < MAX_POOLED)
+		{
+			buffer.clear();
+			DIRECT_BUFFERS.offer(buffer);
+		}
+	}
+
+	/**
+	 * Get a heap buffer for stream copies
+	 */
+	static byte[] acquireArray()
+	{
+		byte[] array = ARRAYS.poll();
+		return array != null ? array : new byte[BUFFER_SIZE];
+	}
+
+	static void releaseArray(byte[] array)
+	{
+		if (ARRAYS.size() < MAX_POOLED)
+		{
+			ARRAYS.offer(array);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistent index of the SHA-256 hashes of the files in a directory and its subdirectories, such as the object
+ * store. Entries are keyed by the path relative to the directory and
+ * are only trusted while the size, modification time and file key of the file are unchanged, which
+ * lets warm launches avoid reading every artifact in full.
+ */
+@Slf4j
+class HashIndex
+{
+	static final String INDEX_NAME = "hashes.json";
+
+	private static final Type INDEX_TYPE = new TypeToken<Map<String, Entry>>()
+	{
+	}.getType();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Entry
+	{
+		private long size;
+		private long lastModified;
+		private String fileKey;
+		private String hash;
+	}
+
+	@Getter
+	private final File dir;
+	private final File indexFile;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean dirty;
+
+	HashIndex(File dir)
+	{
+		this.dir = dir;
+		this.indexFile = new File(dir, INDEX_NAME);
+		load();
+	}
+
+	private void load()
+	{
+		if (!indexFile.exists())
+		{
+			return;
+		}
+
+		try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8))
+		{
+			Map<String, Entry> map = new Gson().fromJson(reader, INDEX_TYPE);
+			if (map != null)
+			{
+				entries.putAll(map);
+			}
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load hash index, all artifacts will be rehashed", ex);
+		}
+	}
+
+	/**
+	 * Get the SHA-256 of a file in the indexed directory, hashing it only if it has changed since it was last indexed
+	 */
+	String hash(File file) throws IOException
+	{
+		String key = key(file);
+		Entry stat = stat(file);
+		Entry entry = entries.get(key);
+		if (entry != null && matches(entry, stat))
+		{
+			return entry.getHash();
+		}
+
+		String hash = HashEngine.hash(file);
+		log.debug("Indexed hash of {}", key);
+		stat.setHash(hash);
+		entries.put(key, stat);
+		dirty = true;
+		return hash;
+	}
+
+	/**
+	 * Record the hash of a file which was just produced, eg. by a download or a patch
+	 */
+	void record(File file, String hash) throws IOException
+	{
+		String key = key(file);
+		Entry stat = stat(file);
+		stat.setHash(hash);
+		entries.put(key, stat);
+		dirty = true;
+	}
+
+	void remove(File file)
+	{
+		if (entries.remove(key(file)) != null)
+		{
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Write the index to disk if it has changed, dropping entries for files which no longer exist
+	 */
+	synchronized void save()
+	{
+		if (entries.keySet().removeIf(name -> !new File(dir, name).isFile()))
+		{
+			dirty = true;
+		}
+
+		if (!dirty)
+		{
+			return;
+		}
+
+		try
+		{
+			File tmpFile = File.createTempFile(INDEX_NAME, null, dir);
+			try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(entries, INDEX_TYPE, writer);
+			}
+
+			Launcher.move(tmpFile, indexFile);
+
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save hash index", ex);
+		}
+	}
+
+	/**
+	 * Get the key of a file, its path relative to the indexed directory with / as the separator
+	 */
+	private String key(File file)
+	{
+		Path base = dir.toPath().toAbsolutePath().normalize();
+		Path path = file.toPath().toAbsolutePath().normalize();
+		if (!path.startsWith(base) || path.equals(base))
+		{
+			throw new IllegalArgumentException(file + " is not in " + dir);
+		}
+		return base.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	private static Entry stat(File file) throws IOException
+	{
+		BasicFileAttributes attributes;
+		try
+		{
+			attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		}
+		catch (NoSuchFileException ex)
+		{
+			throw new FileNotFoundException(file.getPath());
+		}
+
+		if (!attributes.isRegularFile())
+		{
+			throw new FileNotFoundException(file.getPath() + " is not a file");
+		}
+
+		Object fileKey = attributes.fileKey();
+		return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+			fileKey != null ? fileKey.toString() : null, null);
+	}
+
+	private static boolean matches(Entry entry, Entry stat)
+	{
+		return entry.getHash() != null
+			&& entry.getSize() == stat.getSize()
+			&& entry.getLastModified() == stat.getLastModified()
+			&& Objects.equals(entry.getFileKey(), stat.getFileKey());
+	}
+}
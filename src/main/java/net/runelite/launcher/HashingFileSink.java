@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes a response body straight from the http client's buffers to a file channel, hashing each buffer as
+ * it passes through. Unlike reading the body as an {@link java.io.InputStream}, the data is never copied
+ * into an intermediate array. Buffers are requested one batch at a time, so a slow disk applies backpressure
+ * to the connection instead of queueing the body in memory. If the body stalls the subscription is cancelled
+ * and the sink fails with {@link StallDetector.StalledException}.
+ */
+class HashingFileSink implements Flow.Subscriber<List<ByteBuffer>>
+{
+	private final FileChannel channel;
+	private final MessageDigest digest;
+	private final IntConsumer progress;
+	private final CompletableFuture<String> result = new CompletableFuture<>();
+	private final StallDetector stallDetector;
+	private volatile Flow.Subscription subscription;
+	private volatile long position;
+	private long writeNanos;
+
+	/**
+	 * @param position    offset in the channel to write the body at
+	 * @param digest      digest to update, which may already contain the bytes before position, or null to not
+	 *                    hash the body
+	 * @param progress    receives the offset following the last byte written after each write
+	 * @param idleTimeout longest time to wait for the next part of the body
+	 */
+	HashingFileSink(String name, FileChannel channel, long position, MessageDigest digest, IntConsumer progress, Duration idleTimeout)
+	{
+		this.channel = channel;
+		this.position = position;
+		this.digest = digest;
+		this.progress = progress;
+		this.stallDetector = new StallDetector(name, idleTimeout, this::abort);
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription)
+	{
+		this.subscription = subscription;
+		subscription.request(1);
+	}
+
+	@Override
+	public void onNext(List<ByteBuffer> buffers)
+	{
+		if (result.isDone())
+		{
+			// Aborted, the cancellation may not have reached the publisher yet
+			return;
+		}
+
+		// Writing, and the progress callback which may throttle the transfer, aren't the network's time
+		stallDetector.busy();
+		long start = System.nanoTime();
+		try
+		{
+			ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+			for (ByteBuffer buffer : array)
+			{
+				if (digest != null)
+				{
+					// The duplicate shares the content, but keeps the position for the write below
+					digest.update(buffer.duplicate());
+				}
+			}
+
+			for (ByteBuffer buffer : array)
+			{
+				while (buffer.hasRemaining())
+				{
+					position += channel.write(buffer, position);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			abort(ex);
+			return;
+		}
+		writeNanos += System.nanoTime() - start;
+
+		stallDetector.transferred(position);
+		progress.accept((int) position);
+		stallDetector.waiting();
+		subscription.request(1);
+	}
+
+	@Override
+	public void onError(Throwable throwable)
+	{
+		stallDetector.close();
+		result.completeExceptionally(throwable);
+	}
+
+	@Override
+	public void onComplete()
+	{
+		stallDetector.close();
+		result.complete(digest != null ? HashEngine.toString(digest) : null);
+	}
+
+	private void abort(IOException ex)
+	{
+		stallDetector.close();
+		Flow.Subscription s = subscription;
+		if (s != null)
+		{
+			s.cancel();
+		}
+		result.completeExceptionally(ex);
+	}
+
+	/**
+	 * Wait for the body to be written
+	 *
+	 * @return the hex hash of the file, or null if it isn't being hashed
+	 */
+	String await() throws IOException
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (InterruptedException ex)
+		{
+			abort(new InterruptedIOException("interrupted while writing body"));
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while writing body");
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Offset in the channel following the last byte written
+	 */
+	long getPosition()
+	{
+		return position;
+	}
+
+	/**
+	 * Time spent hashing and writing, which is the part of the transfer not spent waiting on the network
+	 */
+	long getWriteNanos()
+	{
+		return writeNanos;
+	}
+
+	/**
+	 * Discard a body which isn't going to be read, which releases the connection
+	 */
+	static void discard(Flow.Publisher<List<ByteBuffer>> publisher)
+	{
+		publisher.subscribe(new Flow.Subscriber<>()
+		{
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				subscription.cancel();
+			}
+
+			@Override
+			public void onNext(List<ByteBuffer> item)
+			{
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+			}
+
+			@Override
+			public void onComplete()
+			{
+			}
+		});
+	}
+}
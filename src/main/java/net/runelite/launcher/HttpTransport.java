@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transport for all of the launcher's http requests. Each host gets a single shared {@link HttpClient}, so
+ * connections, TLS sessions and HTTP/2 streams are reused for the bootstrap and every artifact.
+ */
+@Slf4j
+class HttpTransport
+{
+	static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	// Time to wait for the response headers from a host which hasn't answered yet. Once the latency of a host
+	// is known the timeout is derived from it instead. Bodies are watched by StallDetector.
+	static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(20);
+	private static final Duration MIN_TIMEOUT = Duration.ofSeconds(5);
+	private static final int TIMEOUT_LATENCY_MULTIPLE = 10;
+	private static final double LATENCY_ALPHA = 0.3;
+	private static final String USER_AGENT = "RuneLite/" + LauncherProperties.getVersion();
+
+	private static final Map<String, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+	// Moving average of the time to the response headers, in nanoseconds
+	private static final Map<String, Long> LATENCY = new ConcurrentHashMap<>();
+	private static volatile SSLContext sslContext;
+
+	/**
+	 * Use the given ssl context for all clients, eg. to skip certificate verification. This must be set before
+	 * the first request is made.
+	 */
+	static void setSslContext(SSLContext context, boolean verifyHostname)
+	{
+		sslContext = context;
+		if (!verifyHostname)
+		{
+			// HttpClient has no hostname verifier, only this property which is read when the client is first used
+			System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+		}
+	}
+
+	static HttpRequest.Builder request(URI uri)
+	{
+		return HttpRequest.newBuilder(uri)
+			.header("User-Agent", USER_AGENT)
+			.timeout(timeout(uri));
+	}
+
+	static <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+	{
+		final String host = host(request.uri());
+		final long start = System.nanoTime();
+		return client(request.uri()).sendAsync(request, responseInfo ->
+		{
+			// The body handler is called once the headers have arrived
+			recordLatency(host, System.nanoTime() - start);
+			return bodyHandler.apply(responseInfo);
+		});
+	}
+
+	/**
+	 * Send a request and wait for the response. If the thread is interrupted the request is abandoned.
+	 */
+	static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException
+	{
+		return send(request, bodyHandler, null);
+	}
+
+	/**
+	 * Send a request and wait for the response, including the body if the body handler reads it before
+	 * completing, for up to timeout. If it times out or the thread is interrupted the request is abandoned.
+	 * <p>
+	 * Cancelling the future of an exchange only aborts it on JDK 16+, and the launcher runs on 11, so an abandoned
+	 * request is instead stopped by cancelling its body subscription once the response headers or the next part
+	 * of the body arrive. This closes the connection, or resets the stream on HTTP/2, rather than downloading
+	 * the rest of the body in the background.
+	 *
+	 * @param timeout time to wait, or null to wait indefinitely
+	 */
+	static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, Duration timeout) throws IOException
+	{
+		final AtomicBoolean abandoned = new AtomicBoolean();
+		CompletableFuture<HttpResponse<T>> future = sendAsync(request,
+			responseInfo -> new AbandonableSubscriber<>(bodyHandler.apply(responseInfo), abandoned));
+		try
+		{
+			return timeout == null ? future.get() : future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex)
+		{
+			abandoned.set(true);
+			future.cancel(true);
+			throw new HttpTimeoutException("request to " + request.uri() + " timed out after " + timeout.toMillis() + "ms");
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			abandoned.set(true);
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while requesting " + request.uri());
+		}
+	}
+
+	static boolean isSuccess(HttpResponse<?> response)
+	{
+		return response.statusCode() / 100 == 2;
+	}
+
+	/**
+	 * Time to wait for a response from the host of uri, or for the next part of a body from it, derived from
+	 * its observed latency
+	 */
+	static Duration timeout(URI uri)
+	{
+		Long latency = LATENCY.get(host(uri));
+		if (latency == null)
+		{
+			return RESPONSE_TIMEOUT;
+		}
+
+		long timeout = Math.max(MIN_TIMEOUT.toNanos(), Math.min(RESPONSE_TIMEOUT.toNanos(), latency * TIMEOUT_LATENCY_MULTIPLE));
+		return Duration.ofNanos(timeout);
+	}
+
+	/**
+	 * Discard the client for the host of uri, so that the next request opens a new connection instead of
+	 * reusing one which may be stuck
+	 */
+	static void reset(URI uri)
+	{
+		if (CLIENTS.remove(host(uri)) != null)
+		{
+			log.debug("Discarded http client for {}", host(uri));
+		}
+	}
+
+	private static void recordLatency(String host, long nanos)
+	{
+		LATENCY.merge(host, nanos, (old, sample) -> (long) (LATENCY_ALPHA * sample + (1 - LATENCY_ALPHA) * old));
+	}
+
+	/**
+	 * Key of the host of uri, which is what connections, latencies and mirror scores are tracked by
+	 */
+	static String host(URI uri)
+	{
+		return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+	}
+
+	/**
+	 * Body subscriber which cancels its subscription, and fails the body, once the request has been abandoned
+	 */
+	private static class AbandonableSubscriber<T> implements HttpResponse.BodySubscriber<T>
+	{
+		private final HttpResponse.BodySubscriber<T> delegate;
+		private final AtomicBoolean abandoned;
+		private Flow.Subscription subscription;
+		private boolean done;
+
+		AbandonableSubscriber(HttpResponse.BodySubscriber<T> delegate, AtomicBoolean abandoned)
+		{
+			this.delegate = delegate;
+			this.abandoned = abandoned;
+		}
+
+		@Override
+		public CompletionStage<T> getBody()
+		{
+			return delegate.getBody();
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription)
+		{
+			this.subscription = subscription;
+			delegate.onSubscribe(subscription);
+			checkAbandoned();
+		}
+
+		@Override
+		public void onNext(List<ByteBuffer> item)
+		{
+			if (!done && !checkAbandoned())
+			{
+				delegate.onNext(item);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable)
+		{
+			if (!done)
+			{
+				done = true;
+				delegate.onError(throwable);
+			}
+		}
+
+		@Override
+		public void onComplete()
+		{
+			if (!done)
+			{
+				done = true;
+				delegate.onComplete();
+			}
+		}
+
+		private boolean checkAbandoned()
+		{
+			if (!done && abandoned.get())
+			{
+				done = true;
+				subscription.cancel();
+				delegate.onError(new IOException("request abandoned"));
+			}
+			return done;
+		}
+	}
+
+	private static HttpClient client(URI uri)
+	{
+		String host = host(uri);
+		return CLIENTS.computeIfAbsent(host, k ->
+		{
+			log.debug("Creating http client for {}", host);
+			HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.connectTimeout(CONNECT_TIMEOUT);
+			if (sslContext != null)
+			{
+				builder.sslContext(sslContext);
+			}
+			return builder.build();
+		});
+	}
+}
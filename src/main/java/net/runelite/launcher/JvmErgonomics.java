@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adapts the client's JVM arguments from the bootstrap to the machine it runs on: the heap is sized from the
+ * memory available, including container limits, and the garbage collector and its thread counts are picked
+ * from the cores available. Rules only fill in what the bootstrap hasn't chosen itself, except for the heap,
+ * for which the bootstrap's size is the minimum. The user can override the heap size and the collector.
+ */
+@Slf4j
+class JvmErgonomics
+{
+	private static final long MIB = 1024 * 1024;
+	// The heap gets a quarter of the memory, but never more than half, so the client's native memory and the rest
+	// of the system fit too
+	private static final int HEAP_FRACTION = 4;
+	private static final int MAX_HEAP_FRACTION = 2;
+	private static final long MIN_HEAP = 512 * MIB;
+	private static final long MAX_HEAP = 4096 * MIB;
+	// Heaps this large with enough cores to run a concurrent collector alongside the client get a low pause collector
+	private static final long LOW_PAUSE_MIN_HEAP = 2048 * MIB;
+	private static final int LOW_PAUSE_MIN_CPUS = 4;
+	private static final int MAX_PARALLEL_GC_THREADS = 8;
+	private static final long LARGE_PAGES_MIN_HEAP = 2048 * MIB;
+	// A 32-bit JVM has to reserve the heap in one contiguous range of its address space, which on Windows can't
+	// be much larger than this
+	private static final long MAX_HEAP_32_BIT = 1024 * MIB;
+	private static final long PROBE_TIMEOUT_SECONDS = 10;
+
+	private static final Pattern MAX_HEAP_ARG = Pattern.compile("-(?:Xmx|XX:MaxHeapSize=)(\\d+)([kKmMgG]?)");
+	private static final Pattern GC_ARG = Pattern.compile("-XX:\\+Use\\w+GC");
+
+	enum GarbageCollector
+	{
+		SERIAL("-XX:+UseSerialGC", 0),
+		G1("-XX:+UseG1GC", 0),
+		// Both are experimental before 15
+		ZGC("-XX:+UseZGC", 15),
+		SHENANDOAH("-XX:+UseShenandoahGC", 15);
+
+		private final String arg;
+		private final int minVersion;
+
+		GarbageCollector(String arg, int minVersion)
+		{
+			this.arg = arg;
+			this.minVersion = minVersion;
+		}
+
+		/**
+		 * Check if the client's JVM supports the collector. Not every build includes every collector, and for
+		 * those which may be missing this starts the JVM with it once to find out, because HotSpot declares the
+		 * flags of collectors which aren't built in too, and only fails when they are selected.
+		 */
+		boolean isAvailable()
+		{
+			if (Runtime.version().feature() < minVersion)
+			{
+				return false;
+			}
+
+			if (minVersion == 0)
+			{
+				// Serial and G1 are in every build the client runs on
+				return true;
+			}
+
+			synchronized (AVAILABLE)
+			{
+				return AVAILABLE.computeIfAbsent(this, GarbageCollector::probe);
+			}
+		}
+
+		private boolean probe()
+		{
+			try
+			{
+				Process process = new ProcessBuilder(JvmLauncher.getJava(), arg, "-version")
+					.redirectErrorStream(true)
+					.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+					.start();
+				if (!process.waitFor(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+				{
+					process.destroyForcibly();
+					log.warn("Timed out checking if the JVM supports {}", this);
+					return false;
+				}
+
+				boolean available = process.exitValue() == 0;
+				log.debug("{} is {}available", this, available ? "" : "not ");
+				return available;
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to check if the JVM supports {}", this, ex);
+				return false;
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+	}
+
+	// Collectors which have been probed for, which are the same for every launch of the client from this launcher
+	private static final Map<GarbageCollector, Boolean> AVAILABLE = new EnumMap<>(GarbageCollector.class);
+
+	@Value
+	static class Machine
+	{
+		/**
+		 * Memory available in bytes, or 0 if unknown
+		 */
+		long memory;
+		int cpus;
+		boolean containerLimited;
+		boolean transparentHugePages;
+		/**
+		 * Whether the JVM is 32-bit, which limits the heap to a fraction of its address space
+		 */
+		boolean jvm32Bit;
+
+		static Machine detect()
+		{
+			long memory = physicalMemory();
+			int cpus = Runtime.getRuntime().availableProcessors();
+			boolean limited = false;
+
+			if (OS.getOs() == OS.OSType.Linux)
+			{
+				long memoryLimit = cgroupMemoryLimit();
+				if (memoryLimit > 0 && (memory == 0 || memoryLimit < memory))
+				{
+					memory = memoryLimit;
+					limited = true;
+				}
+
+				int cpuLimit = cgroupCpuLimit();
+				if (cpuLimit > 0 && cpuLimit < cpus)
+				{
+					cpus = cpuLimit;
+					limited = true;
+				}
+			}
+
+			return new Machine(memory, cpus, limited, OS.getOs() == OS.OSType.Linux && transparentHugePages(),
+				"32".equals(System.getProperty("sun.arch.data.model")));
+		}
+	}
+
+	private final Machine machine;
+	private final Integer maxHeapMib;
+	private final GarbageCollector gc;
+	private final Predicate<GarbageCollector> available;
+
+	/**
+	 * @param maxHeapMib heap size in MiB chosen by the user, or null to size it from the memory
+	 * @param gc         collector chosen by the user, or null to pick one
+	 */
+	JvmErgonomics(Machine machine, Integer maxHeapMib, GarbageCollector gc)
+	{
+		this(machine, maxHeapMib, gc, GarbageCollector::isAvailable);
+	}
+
+	JvmErgonomics(Machine machine, Integer maxHeapMib, GarbageCollector gc, Predicate<GarbageCollector> available)
+	{
+		this.machine = machine;
+		this.maxHeapMib = maxHeapMib;
+		this.gc = gc;
+		this.available = available;
+	}
+
+	/**
+	 * Apply the rules to the bootstrap's JVM arguments
+	 */
+	List<String> apply(List<String> bootstrapArgs)
+	{
+		List<String> args = new ArrayList<>();
+		long bootstrapHeap = 0;
+		boolean hasGc = false;
+		for (String arg : bootstrapArgs)
+		{
+			Matcher matcher = MAX_HEAP_ARG.matcher(arg);
+			if (matcher.matches())
+			{
+				bootstrapHeap = parseSize(matcher.group(1), matcher.group(2));
+				continue;
+			}
+
+			hasGc |= GC_ARG.matcher(arg).matches();
+			args.add(arg);
+		}
+
+		List<String> applied = new ArrayList<>();
+
+		long heap = heapSize(bootstrapHeap);
+		if (heap > 0)
+		{
+			applied.add("-Xmx" + heap / MIB + "m");
+		}
+
+		GarbageCollector collector = null;
+		if (gc != null || !hasGc)
+		{
+			collector = collector(heap);
+			if (hasGc)
+			{
+				// The user's choice replaces the bootstrap's
+				args.removeIf(arg -> GC_ARG.matcher(arg).matches());
+			}
+			applied.add(collector.arg);
+		}
+
+		if (collector != null && collector != GarbageCollector.SERIAL && machine.getCpus() > 1 && !hasArg(args, "-XX:ParallelGCThreads="))
+		{
+			// Leave a core for the client's game loop while collecting
+			int parallel = Math.max(1, Math.min(machine.getCpus() - 1, MAX_PARALLEL_GC_THREADS));
+			applied.add("-XX:ParallelGCThreads=" + parallel);
+			applied.add("-XX:ConcGCThreads=" + Math.max(1, parallel / 4));
+		}
+
+		if (machine.isTransparentHugePages() && heap >= LARGE_PAGES_MIN_HEAP && !hasArg(args, "-XX:+UseLargePages") && !hasArg(args, "-XX:+UseTransparentHugePages"))
+		{
+			applied.add("-XX:+UseTransparentHugePages");
+		}
+
+		log.info("JVM ergonomics for {} MiB of memory{} and {} cpus: {}", machine.getMemory() / MIB,
+			machine.isContainerLimited() ? " (container limited)" : "", machine.getCpus(), applied);
+
+		args.addAll(applied);
+		return args;
+	}
+
+	private long heapSize(long bootstrapHeap)
+	{
+		long heap = uncappedHeapSize(bootstrapHeap);
+		if (machine.isJvm32Bit() && heap > MAX_HEAP_32_BIT)
+		{
+			if (maxHeapMib != null)
+			{
+				log.warn("A heap of {} MiB doesn't fit in a 32-bit JVM, using {} MiB", maxHeapMib, MAX_HEAP_32_BIT / MIB);
+			}
+			return MAX_HEAP_32_BIT;
+		}
+		return heap;
+	}
+
+	private long uncappedHeapSize(long bootstrapHeap)
+	{
+		if (maxHeapMib != null)
+		{
+			return maxHeapMib * MIB;
+		}
+
+		long memory = machine.getMemory();
+		if (memory == 0)
+		{
+			return bootstrapHeap;
+		}
+
+		long heap = Math.max(MIN_HEAP, Math.min(MAX_HEAP, memory / HEAP_FRACTION));
+		// The bootstrap's heap is what the client needs, so only grow it
+		heap = Math.max(heap, bootstrapHeap);
+		// ... unless the machine can't fit it without swapping
+		return Math.min(heap, memory / MAX_HEAP_FRACTION);
+	}
+
+	private GarbageCollector collector(long heap)
+	{
+		if (gc != null)
+		{
+			if (available.test(gc))
+			{
+				return gc;
+			}
+			log.warn("{} is not available in this JVM, picking a garbage collector automatically", gc);
+		}
+
+		if (machine.getCpus() < 2)
+		{
+			// A concurrent collector would compete with the client for the only core
+			return GarbageCollector.SERIAL;
+		}
+
+		if (heap >= LOW_PAUSE_MIN_HEAP && machine.getCpus() >= LOW_PAUSE_MIN_CPUS)
+		{
+			for (GarbageCollector lowPause : new GarbageCollector[]{GarbageCollector.ZGC, GarbageCollector.SHENANDOAH})
+			{
+				if (available.test(lowPause))
+				{
+					return lowPause;
+				}
+			}
+		}
+
+		return GarbageCollector.G1;
+	}
+
+	private static boolean hasArg(List<String> args, String prefix)
+	{
+		return args.stream().anyMatch(arg -> arg.startsWith(prefix));
+	}
+
+	static long parseSize(String value, String unit)
+	{
+		long size = Long.parseLong(value);
+		switch (unit.toLowerCase(Locale.ROOT))
+		{
+			case "k":
+				return size * 1024;
+			case "m":
+				return size * MIB;
+			case "g":
+				return size * 1024 * MIB;
+			default:
+				return size;
+		}
+	}
+
+	private static long physicalMemory()
+	{
+		try
+		{
+			com.sun.management.OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(com.sun.management.OperatingSystemMXBean.class);
+			return os.getTotalPhysicalMemorySize();
+		}
+		catch (LinkageError ex)
+		{
+			log.debug("jdk.management isn't available", ex);
+		}
+
+		// MemTotal:       16318024 kB
+		String memInfo = read(Paths.get("/proc/meminfo"));
+		if (memInfo != null)
+		{
+			Matcher matcher = Pattern.compile("MemTotal:\\s+(\\d+) kB").matcher(memInfo);
+			if (matcher.find())
+			{
+				return Long.parseLong(matcher.group(1)) * 1024;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the memory limit of the cgroup in bytes, or 0 if there isn't one
+	 */
+	private static long cgroupMemoryLimit()
+	{
+		// cgroup v2, "max" if unlimited
+		String limit = read(Paths.get("/sys/fs/cgroup/memory.max"));
+		if (limit == null)
+		{
+			// cgroup v1, a huge number if unlimited, which the caller ignores
+			limit = read(Paths.get("/sys/fs/cgroup/memory/memory.limit_in_bytes"));
+		}
+
+		try
+		{
+			return limit != null && !limit.equals("max") ? Long.parseLong(limit) : 0;
+		}
+		catch (NumberFormatException ex)
+		{
+			return 0;
+		}
+	}
+
+	/**
+	 * @return the number of cpus the cgroup's quota allows, or 0 if there isn't a quota
+	 */
+	private static int cgroupCpuLimit()
+	{
+		try
+		{
+			long quota;
+			long period;
+			// cgroup v2, "max 100000" if unlimited
+			String max = read(Paths.get("/sys/fs/cgroup/cpu.max"));
+			if (max != null)
+			{
+				String[] parts = max.split(" ");
+				if (parts.length != 2 || parts[0].equals("max"))
+				{
+					return 0;
+				}
+				quota = Long.parseLong(parts[0]);
+				period = Long.parseLong(parts[1]);
+			}
+			else
+			{
+				// cgroup v1, -1 if unlimited
+				String q = read(Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us"));
+				String p = read(Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us"));
+				if (q == null || p == null)
+				{
+					return 0;
+				}
+				quota = Long.parseLong(q);
+				period = Long.parseLong(p);
+			}
+
+			return quota > 0 && period > 0 ? (int) Math.max(1, (quota + period - 1) / period) : 0;
+		}
+		catch (NumberFormatException ex)
+		{
+			return 0;
+		}
+	}
+
+	private static boolean transparentHugePages()
+	{
+		// eg. "always [madvise] never", with the selected mode in brackets
+		String enabled = read(Paths.get("/sys/kernel/mm/transparent_hugepage/enabled"));
+		return enabled != null && (enabled.contains("[always]") || enabled.contains("[madvise]"));
+	}
+
+	private static String read(Path path)
+	{
+		try
+		{
+			return Files.exists(path) ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim() : null;
+		}
+		catch (IOException ex)
+		{
+			return null;
+		}
+	}
+}
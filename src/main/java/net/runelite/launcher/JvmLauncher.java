@@ -24,29 +24,26 @@
  */
 package net.runelite.launcher;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import lombok.extern.slf4j.Slf4j;
 import net.runelite.launcher.beans.Bootstrap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Slf4j
 class JvmLauncher
 {
 	private static final Logger logger = LoggerFactory.getLogger(JvmLauncher.class);
 
-	private static String getJava() throws FileNotFoundException
+	static String getJava() throws FileNotFoundException
 	{
 		Path javaHome = Paths.get(System.getProperty("java.home"));
 
@@ -70,12 +67,14 @@ class JvmLauncher
 		return javaPath.toAbsolutePath().toString();
 	}
 
-	static void launch(
+	static Process launch(
 		Bootstrap bootstrap,
 		List<File> results,
 		Collection<String> clientArgs,
 		List<String> jvmProps,
-		List<String> jvmArgs) throws IOException
+		List<String> jvmArgs,
+		JvmErgonomics ergonomics,
+		ClientOutput output) throws IOException
 	{
 		StringBuilder classPath = new StringBuilder();
 		for (File f : results)
@@ -96,7 +95,7 @@ class JvmLauncher
 		catch (FileNotFoundException ex)
 		{
 			logger.error("Unable to find java executable", ex);
-			return;
+			return null;
 		}
 
 		List<String> arguments = new ArrayList<>();
@@ -105,10 +104,8 @@ class JvmLauncher
 		arguments.add(classPath.toString());
 
 		String[] jvmArguments = getJvmArguments(bootstrap);
-		if (jvmArguments != null)
-		{
-			arguments.addAll(Arrays.asList(jvmArguments));
-		}
+		List<String> bootstrapArguments = jvmArguments != null ? Arrays.asList(jvmArguments) : Collections.emptyList();
+		arguments.addAll(ergonomics != null ? ergonomics.apply(bootstrapArguments) : bootstrapArguments);
 		arguments.addAll(jvmProps);
 		arguments.addAll(jvmArgs);
 
@@ -121,16 +118,11 @@ class JvmLauncher
 		builder.redirectErrorStream(true);
 		Process process = builder.start();
 
+		output.start(process);
+
 		SplashScreen.stop();
 
-		if (log.isDebugEnabled())
-		{
-			BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-			for (String line; (line = reader.readLine()) != null; )
-			{
-				System.out.println(line);
-			}
-		}
+		return process;
 	}
 
 	private static String[] getJvmArguments(Bootstrap bootstrap)
@@ -31,25 +31,31 @@ import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
-import com.google.common.hash.HashingOutputStream;
-import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -57,21 +63,34 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -81,6 +100,7 @@ import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
+import joptsimple.util.EnumConverter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.launcher.beans.Artifact;
 import net.runelite.launcher.beans.Bootstrap;
@@ -95,7 +115,35 @@ public class Launcher
 	public static final File LOGS_DIR = new File(RUNELITE_DIR, "logs");
 	private static final File REPO_DIR = new File(RUNELITE_DIR, "repository2");
 	public static final File CRASH_FILES = new File(LOGS_DIR, "jvm_crash_pid_%p.log");
-	private static final String USER_AGENT = "RuneLite/" + LauncherProperties.getVersion();
+	// The client's stdout and stderr. The client's own log is client.log, which is written by the client itself.
+	private static final File CLIENT_OUTPUT_LOG = new File(LOGS_DIR, "client-output.log");
+	private static final File SAFE_MODE_FILE = new File(RUNELITE_DIR, "safemode.json");
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+	private static final int DEFAULT_BOOTSTRAP_HEDGE_DELAY = 1000;
+	private static final int BOOTSTRAP_TIMEOUT = 20_000;
+	private static final String PATCHED_SUFFIX = ".patched";
+	// Bounds on the read-ahead buffer used while applying a diff
+	private static final int MIN_PATCH_PIPE_SIZE = 64 * 1024;
+	private static final int MAX_PATCH_PIPE_SIZE = 8 * 1024 * 1024;
+	private static final File STAGING_DIR = new File(RUNELITE_DIR, "repository2-staging");
+	private static final HashIndex HASH_INDEX = new HashIndex(REPO_DIR);
+	private static final ObjectStore OBJECT_STORE = new ObjectStore(new File(REPO_DIR, ObjectStore.DIR_NAME));
+	private static final Trash TRASH = new Trash(new File(REPO_DIR, "trash"));
+	private static final ThroughputStats THROUGHPUT = new ThroughputStats(new File(RUNELITE_DIR, "throughput.json"));
+	private static final File CDS_DIR = new File(RUNELITE_DIR, "cds");
+	private static final CdsArchive CLIENT_CDS = new CdsArchive(CDS_DIR, "client");
+	private static final MirrorSelector MIRRORS = new MirrorSelector(new File(RUNELITE_DIR, "mirrors.json"), THROUGHPUT);
+	// Artifact downloads are latency bound rather than bandwidth bound, so allow a few more transfers than cores
+	// Verification threads when the disk type can't be detected, which includes every non-Linux system. Low enough
+	// not to thrash a spinning disk, while still overlapping hashing with I/O on a solid state one.
+	private static final int UNKNOWN_DISK_VERIFY_THREADS = 2;
+	private static final int DEFAULT_DOWNLOAD_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors() * 2));
+	private static final int DEFAULT_DOWNLOAD_SEGMENTS = 4;
+	// Below this a single connection finishes before the extra connections get past slow start
+	private static final int MIN_SEGMENTED_SIZE = 16 * 1024 * 1024;
+	// Failed attempts to download an artifact, trying each of its sources in turn. Sources which serve the
+	// wrong bytes are dropped instead, so every source gets a chance to serve the right ones.
+	private static final int MAX_SOURCE_ATTEMPTS = 3;
 
 	public static void main(String[] args)
 	{
@@ -106,6 +154,12 @@ public class Launcher
 		parser.accepts("nojvm", "Launch the client in this VM instead of launching a new VM");
 		parser.accepts("debug", "Enable debug logging");
 		parser.accepts("nodiff", "Always download full artifacts instead of diffs");
+		parser.accepts("nocds", "Don't use class data sharing archives to start the client and the launcher");
+		parser.accepts("noergonomics", "Use the client JVM arguments from the bootstrap as they are, instead of adapting the heap and garbage collector to this machine");
+		parser.accepts("safe-mode", "Start the client without hardware acceleration and without the launcher's JVM settings");
+		parser.accepts("plan", "Print how each artifact would be updated with the estimated bytes and time, without downloading anything");
+		parser.accepts("fast-launch", "Start the client from the last verified artifacts and check for updates in the background");
+		parser.accepts("background-update", "Keep checking for updates while the client is running and stage them for the next launch");
 		parser.accepts("insecure-skip-tls-verification", "Disable TLS certificate and hostname verification");
 		parser.accepts("use-jre-truststore", "Use JRE cacerts truststore instead of the Windows Trusted Root Certificate Authorities (only on Windows)");
 		parser.accepts("scale", "Custom scale factor for Java 2D").withRequiredArg();
@@ -124,6 +178,73 @@ public class Launcher
 			.ofType(HardwareAccelerationMode.class)
 			.defaultsTo(HardwareAccelerationMode.defaultMode(OS.getOs()));
 
+		final ArgumentAcceptingOptionSpec<Integer> downloadThreads = parser.accepts("download-threads", "Number of artifacts to download concurrently")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(DEFAULT_DOWNLOAD_THREADS);
+
+		final ArgumentAcceptingOptionSpec<Integer> maxHeap = parser.accepts("max-heap", "Client heap size in MiB (defaults to a size based on the memory available)")
+			.withRequiredArg()
+			.ofType(Integer.class);
+
+		final ArgumentAcceptingOptionSpec<JvmErgonomics.GarbageCollector> garbageCollector = parser.accepts("gc",
+				"Client garbage collector: SERIAL, G1, ZGC or SHENANDOAH (defaults to one based on the memory and cpus available)")
+			.withRequiredArg()
+			.withValuesConvertedBy(new EnumConverter<JvmErgonomics.GarbageCollector>(JvmErgonomics.GarbageCollector.class)
+			{
+				@Override
+				public JvmErgonomics.GarbageCollector convert(String value)
+				{
+					return super.convert(value.toUpperCase(Locale.ROOT));
+				}
+			});
+
+		final ArgumentAcceptingOptionSpec<Integer> downloadSegments = parser.accepts("download-segments",
+				"Number of connections to download large artifacts over (1 to use a single connection)")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(DEFAULT_DOWNLOAD_SEGMENTS);
+
+		final ArgumentAcceptingOptionSpec<Integer> verifyThreads = parser.accepts("verify-threads", "Number of artifacts to verify concurrently (defaults to the number of cores on solid state disks, 1 on spinning disks, and " + UNKNOWN_DISK_VERIFY_THREADS + " when the disk type is unknown)")
+			.withRequiredArg()
+			.ofType(Integer.class);
+
+		final ArgumentAcceptingOptionSpec<Integer> bootstrapHedgeDelay = parser.accepts("bootstrap-hedge-delay",
+				"Milliseconds to wait for the primary bootstrap URL before also requesting the fallback URL (0 to request both at once, -1 to only use the fallback on failure)")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(DEFAULT_BOOTSTRAP_HEDGE_DELAY);
+
+		final ArgumentAcceptingOptionSpec<Integer> bootstrapTtl = parser.accepts("bootstrap-ttl",
+				"Seconds for which a cached bootstrap is used without checking for a newer one")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(0);
+
+		final ArgumentAcceptingOptionSpec<Integer> updateInterval = parser.accepts("update-interval",
+				"Minutes between checks for updates with --background-update")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(30);
+
+		final ArgumentAcceptingOptionSpec<Integer> updateBandwidth = parser.accepts("update-bandwidth",
+				"Maximum KiB/s used to download updates while the client is running")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(1024);
+
+		final ArgumentAcceptingOptionSpec<Integer> retainSize = parser.accepts("retain-size",
+				"Maximum MiB of artifacts to keep in the repository, old versions are kept for rollbacks and diffs")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(1024);
+
+		final ArgumentAcceptingOptionSpec<Integer> retainVersions = parser.accepts("retain-versions",
+				"Maximum number of launched versions to keep in the repository")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(5);
+
 		final OptionSet options;
 		final HardwareAccelerationMode hardwareAccelerationMode;
 		try
@@ -231,9 +352,14 @@ public class Launcher
 				setupInsecureTrustManager();
 			}
 
+			final CdsArchive launcherCds = options.has("nocds") ? null : new CdsArchive(CDS_DIR, "launcher");
+			final JvmErgonomics ergonomics = options.has("noergonomics") ? null
+				: new JvmErgonomics(JvmErgonomics.Machine.detect(), options.valueOf(maxHeap), options.valueOf(garbageCollector));
+			final ClientSupervisor supervisor = new ClientSupervisor(SAFE_MODE_FILE, CLIENT_OUTPUT_LOG, isDebug, hardwareAccelerationMode, options.has("safe-mode"));
+
 			if (postInstall)
 			{
-				postInstall(jvmParams);
+				postInstall(jvmParams, launcherCds);
 				return;
 			}
 
@@ -256,11 +382,60 @@ public class Launcher
 				}
 			}
 
+			final boolean isStaging = options.has("staging");
+			final boolean nojvm = "true".equals(System.getProperty("runelite.launcher.nojvm"));
+			final BootstrapCache verifiedBootstrap = new BootstrapCache(RUNELITE_DIR, isStaging ? "bootstrap-staging-verified" : "bootstrap-verified");
+
+			REPO_DIR.mkdirs();
+			final StagingArea stagingArea = new StagingArea(STAGING_DIR);
+
+			// Move an update which was downloaded in the background into the repository
+			Bootstrap staged = stagingArea.promote(HASH_INDEX);
+			if (staged != null)
+			{
+				log.info("Promoted staged update");
+				verifiedBootstrap.store(staged);
+			}
+
+			final boolean launchInVm = nojvm || options.has("nojvm");
+			final boolean backgroundUpdate = options.has("background-update");
+			// Updates staged while the client is running are throttled so they don't disturb it
+			final RateLimiter limiter = RateLimiter.create(options.valueOf(updateBandwidth) * 1024.0);
+			final Runnable stageUpdate = () -> stageUpdate(isStaging, options.valueOf(bootstrapHedgeDelay), options.valueOf(bootstrapTtl),
+				nodiff, limiter, jvmParams, launcherCds, stagingArea, verifiedBootstrap);
+			final CompletableFuture<Process> client = new CompletableFuture<>();
+
+			if (options.has("fast-launch"))
+			{
+				Bootstrap bootstrap = verifiedBootstrap.get();
+				List<Artifact> artifacts = bootstrap != null ? getArtifacts(bootstrap) : null;
+				if (artifacts != null && !isLauncherTooOld(bootstrap) && !isJvmTooOld(bootstrap) && isInstalled(artifacts))
+				{
+					log.info("Launching from verified artifacts, checking for updates in the background");
+					clean(artifacts);
+					retain(artifacts, options.valueOf(retainSize), options.valueOf(retainVersions));
+
+					startUpdater(() ->
+					{
+						stageUpdate.run();
+						if (backgroundUpdate)
+						{
+							pollUpdates(stageUpdate, client, options.valueOf(updateInterval));
+						}
+					}, launchInVm);
+
+					launchClient(client, supervisor, bootstrap, artifacts, options, isDebug, launchInVm, jvmProps, jvmParams, ergonomics);
+					return;
+				}
+
+				log.info("No verified artifacts to launch from, updating first");
+			}
+
 			SplashScreen.stage(.05, null, "Downloading bootstrap");
 			Bootstrap bootstrap;
 			try
 			{
-				bootstrap = getBootstrap(options.has("staging"));
+				bootstrap = getBootstrap(isStaging, options.valueOf(bootstrapHedgeDelay), options.valueOf(bootstrapTtl));
 			}
 			catch (IOException ex)
 			{
@@ -271,24 +446,8 @@ public class Launcher
 
 			SplashScreen.stage(.10, null, "Tidying the cache");
 
-			boolean launcherTooOld = bootstrap.getRequiredLauncherVersion() != null &&
-				compareVersion(bootstrap.getRequiredLauncherVersion(), LauncherProperties.getVersion()) > 0;
-
-			boolean jvmTooOld = false;
-			try
-			{
-				if (bootstrap.getRequiredJVMVersion() != null)
-				{
-					jvmTooOld = Runtime.Version.parse(bootstrap.getRequiredJVMVersion())
-						.compareTo(Runtime.version()) > 0;
-				}
-			}
-			catch (IllegalArgumentException e)
-			{
-				log.warn("Unable to parse bootstrap version", e);
-			}
-
-			boolean nojvm = "true".equals(System.getProperty("runelite.launcher.nojvm"));
+			boolean launcherTooOld = isLauncherTooOld(bootstrap);
+			boolean jvmTooOld = isJvmTooOld(bootstrap);
 
 			if (launcherTooOld || (nojvm && jvmTooOld))
 			{
@@ -310,48 +469,25 @@ public class Launcher
 				return;
 			}
 
+			if (options.has("plan"))
+			{
+				printPlan(getArtifacts(bootstrap), nodiff);
+				return;
+			}
+
 			// update packr vmargs. The only extra vmargs we need to write to disk are the ones which cannot be set
 			// at runtime, which currently is just the vm errorfile.
-			PackrConfig.updateLauncherArgs(bootstrap, jvmParams);
-
-			REPO_DIR.mkdirs();
+			PackrConfig.updateLauncherArgs(bootstrap, jvmParams, launcherCds);
 
 			// Determine artifacts for this OS
-			List<Artifact> artifacts = Arrays.stream(bootstrap.getArtifacts())
-				.filter(a ->
-				{
-					if (a.getPlatform() == null)
-					{
-						return true;
-					}
-
-					final String os = System.getProperty("os.name");
-					final String arch = System.getProperty("os.arch");
-					for (Platform platform : a.getPlatform())
-					{
-						if (platform.getName() == null)
-						{
-							continue;
-						}
-
-						OS.OSType platformOs = OS.parseOs(platform.getName());
-						if ((platformOs == OS.OSType.Other ? platform.getName().equals(os) : platformOs == OS.getOs())
-							&& (platform.getArch() == null || platform.getArch().equals(arch)))
-						{
-							return true;
-						}
-					}
-
-					return false;
-				})
-				.collect(Collectors.toList());
+			List<Artifact> artifacts = getArtifacts(bootstrap);
 
 			// Clean out old artifacts from the repository
 			clean(artifacts);
 
 			try
 			{
-				download(artifacts, nodiff);
+				download(artifacts, nodiff, options.valueOf(downloadThreads), options.valueOf(downloadSegments), HASH_INDEX, null);
 			}
 			catch (IOException ex)
 			{
@@ -363,7 +499,17 @@ public class Launcher
 			SplashScreen.stage(.80, null, "Verifying");
 			try
 			{
-				verifyJarHashes(artifacts);
+				int threads;
+				if (options.has(verifyThreads))
+				{
+					threads = options.valueOf(verifyThreads);
+				}
+				else
+				{
+					threads = defaultVerifyThreads(DiskInfo.getType(REPO_DIR));
+				}
+
+				verifyJarHashes(artifacts, threads);
 			}
 			catch (VerificationException ex)
 			{
@@ -372,42 +518,19 @@ public class Launcher
 				return;
 			}
 
-			final Collection<String> clientArgs = getClientArgs(options);
-
-			if (isDebug)
-			{
-				clientArgs.add("--debug");
-			}
-
-			SplashScreen.stage(.90, "Starting the client", "");
+			// Remember this bootstrap so --fast-launch can start from it without checking for updates first
+			verifiedBootstrap.store(bootstrap);
+			// Anything staged is for an older bootstrap now
+			stagingArea.clear();
 
-			List<File> classpath = artifacts.stream()
-				.map(dep -> new File(REPO_DIR, dep.getName()))
-				.collect(Collectors.toList());
+			retain(artifacts, options.valueOf(retainSize), options.valueOf(retainVersions));
 
-			// packr doesn't let us specify command line arguments
-			if (nojvm || options.has("nojvm"))
-			{
-				try
-				{
-					ReflectionLauncher.launch(classpath, clientArgs);
-				}
-				catch (MalformedURLException ex)
-				{
-					log.error("unable to launch client", ex);
-				}
-			}
-			else
+			if (backgroundUpdate)
 			{
-				try
-				{
-					JvmLauncher.launch(bootstrap, classpath, clientArgs, jvmProps, jvmParams);
-				}
-				catch (IOException ex)
-				{
-					log.error("unable to launch client", ex);
-				}
+				startUpdater(() -> pollUpdates(stageUpdate, client, options.valueOf(updateInterval)), launchInVm);
 			}
+
+			launchClient(client, supervisor, bootstrap, artifacts, options, isDebug, launchInVm, jvmProps, jvmParams, ergonomics);
 		}
 		catch (Exception e)
 		{
@@ -440,288 +563,1142 @@ public class Launcher
 		}
 	}
 
-	private static Bootstrap getBootstrap(boolean isStaging) throws IOException
+	private static void launchClient(CompletableFuture<Process> client, ClientSupervisor supervisor, Bootstrap bootstrap, List<Artifact> artifacts,
+		OptionSet options, boolean isDebug, boolean nojvm, List<String> jvmProps, List<String> jvmParams, JvmErgonomics ergonomics)
+		throws InterruptedException
 	{
-		URLConnection conn = createBootstrapConnection(isStaging, false);
-//		URL signatureUrl = new URL(LauncherProperties.getBootstrapSig());
-//		URLConnection signatureConn = signatureUrl.openConnection();
-//		signatureConn.setRequestProperty("User-Agent", USER_AGENT);
-//
-//		try (InputStream i = conn.getInputStream(); InputStream signatureIn = signatureConn.getInputStream())
-		try (InputStream i = conn.getInputStream();)
-		{
-			byte[] bytes = ByteStreams.toByteArray(i);
-//			byte[] signature = ByteStreams.toByteArray(signatureIn);
-//
-//			Certificate certificate = getCertificate();
-//			Signature s = Signature.getInstance("SHA256withRSA");
-//			s.initVerify(certificate);
-//			s.update(bytes);
-//
-//			if (!s.verify(signature))
-//			{
-//				throw new VerificationException("Unable to verify bootstrap signature");
-//			}
-//
-			Gson g = new Gson();
-			return g.fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
-		}
-		catch (IOException ex)
+		if (nojvm)
 		{
-			log.warn("Error downloading bootstrap, falling back to secondary URL", ex);
-			try (InputStream inputStream = createBootstrapConnection(isStaging, true).getInputStream())
-			{
-				byte[] bytes = ByteStreams.toByteArray(inputStream);
-				return new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
-			}
+			launch(bootstrap, artifacts, options, isDebug, true, jvmProps, jvmParams, ergonomics, ClientSupervisor.SafeMode.NONE, null);
+			client.complete(null);
+			return;
 		}
-	}
-
-	private static URLConnection createBootstrapConnection(boolean isStaging, boolean isFallback) throws IOException
-	{
-		URLConnection conn = getBootstrapUrl(isStaging, isFallback).openConnection();
-		conn.setRequestProperty("User-Agent", USER_AGENT);
-		return conn;
-	}
 
-	private static URL getBootstrapUrl(boolean isStaging, boolean isFallback) throws IOException
-	{
-		if (isStaging)
-		{
-			return isFallback ? new URL(LauncherProperties.getBootstrapStagingFallback()) : new URL(LauncherProperties.getBootstrapStaging());
-		}
-		return isFallback ? new URL(LauncherProperties.getBootstrapLiveFallback()) : new URL(LauncherProperties.getBootstrapLive());
+		List<String> configuration = artifacts.stream()
+			.map(Artifact::getHash)
+			.collect(Collectors.toList());
+		supervisor.supervise(configuration, (safeMode, output) ->
+			launch(bootstrap, artifacts, options, isDebug, false, jvmProps, jvmParams, ergonomics, safeMode, output), client);
 	}
 
-	private static Collection<String> getClientArgs(OptionSet options)
+	/**
+	 * @return the client process, or null if the client was launched in this vm or could not be launched
+	 */
+	private static Process launch(Bootstrap bootstrap, List<Artifact> artifacts, OptionSet options, boolean isDebug, boolean nojvm,
+		List<String> jvmProps, List<String> jvmParams, JvmErgonomics ergonomics, ClientSupervisor.SafeMode safeMode, ClientOutput output)
 	{
-		final Collection<String> args = options.nonOptionArguments().stream()
-			.filter(String.class::isInstance)
-			.map(String.class::cast)
-			.collect(Collectors.toCollection(ArrayList::new));
-
-		String clientArgs = System.getenv("RUNELITE_ARGS");
-		if (!Strings.isNullOrEmpty(clientArgs))
-		{
-			args.addAll(Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(clientArgs));
-		}
+		final Collection<String> clientArgs = getClientArgs(options);
 
-		clientArgs = (String) options.valueOf("clientargs");
-		if (!Strings.isNullOrEmpty(clientArgs))
+		if (isDebug)
 		{
-			args.addAll(Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(clientArgs));
+			clientArgs.add("--debug");
 		}
 
-		return args;
-	}
-
-	private static void download(List<Artifact> artifacts, boolean nodiff) throws IOException
-	{
-		List<Artifact> toDownload = new ArrayList<>(artifacts.size());
-		Map<Artifact, Diff> diffs = new HashMap<>();
-		int totalDownloadBytes = 0;
-		final boolean isCompatible = new DefaultDeflateCompatibilityWindow().isCompatible();
+		SplashScreen.stage(.90, "Starting the client", "");
 
-		if (!isCompatible && !nodiff)
-		{
-			log.debug("System zlib is not compatible with archive-patcher; not using diffs");
-			nodiff = true;
-		}
+		List<File> classpath = artifacts.stream()
+			.map(Launcher::artifactFile)
+			.collect(Collectors.toList());
 
-		for (Artifact artifact : artifacts)
+		// packr doesn't let us specify command line arguments
+		if (nojvm)
 		{
-			File dest = new File(REPO_DIR, artifact.getName());
-
-			String hash;
 			try
 			{
-				hash = hash(dest);
+				ReflectionLauncher.launch(classpath, clientArgs);
 			}
-			catch (FileNotFoundException ex)
+			catch (MalformedURLException ex)
 			{
-				hash = null;
+				log.error("unable to launch client", ex);
 			}
-
-			if (Objects.equals(hash, artifact.getHash()))
+		}
+		else
+		{
+			List<String> clientJvmProps = new ArrayList<>(jvmProps);
+			if (safeMode.compareTo(ClientSupervisor.SafeMode.SOFTWARE_RENDERING) >= 0)
 			{
-				log.debug("Hash for {} up to date", artifact.getName());
-				continue;
+				// The last value of a property wins, so these override the requested mode
+				clientJvmProps.addAll(HardwareAccelerationMode.safeMode(OS.getOs()).toParams(OS.getOs()));
 			}
 
-			int downloadSize = artifact.getSize();
-
-			// See if there is a diff available
-			if (!nodiff && artifact.getDiffs() != null)
+			boolean tuned = safeMode.compareTo(ClientSupervisor.SafeMode.DEFAULT_JVM) < 0;
+			List<String> clientJvmParams = new ArrayList<>(jvmParams);
+			if (tuned && !options.has("nocds"))
 			{
-				for (Diff diff : artifact.getDiffs())
-				{
-					File old = new File(REPO_DIR, diff.getFrom());
-
-					String oldhash;
-					try
-					{
-						oldhash = hash(old);
-					}
-					catch (FileNotFoundException ex)
-					{
-						oldhash = null;
-					}
-
-					// Check if old file is valid
-					if (diff.getFromHash().equals(oldhash))
-					{
-						diffs.put(artifact, diff);
-						downloadSize = diff.getSize();
-					}
-				}
+				// The archive holds the classes of exactly these artifacts, loaded from exactly these paths
+				List<String> key = new ArrayList<>();
+				artifacts.forEach(a -> key.add(a.getHash()));
+				classpath.forEach(f -> key.add(f.getAbsolutePath()));
+				clientJvmParams.addAll(CLIENT_CDS.arguments(CdsArchive.key(key)));
 			}
 
-			toDownload.add(artifact);
-			totalDownloadBytes += downloadSize;
+			try
+			{
+				return JvmLauncher.launch(bootstrap, classpath, clientArgs, clientJvmProps, clientJvmParams, tuned ? ergonomics : null, output);
+			}
+			catch (IOException ex)
+			{
+				log.error("unable to launch client", ex);
+			}
 		}
+		return null;
+	}
 
-		final double START_PROGRESS = .15;
-		int downloaded = 0;
-		SplashScreen.stage(START_PROGRESS, "Downloading", "");
+	private static void startUpdater(Runnable task, boolean daemon)
+	{
+		Thread updater = new Thread(task, "updater");
+		updater.setPriority(Thread.MIN_PRIORITY);
+		// If the client runs in this vm the updater can't tell when it exits, so it just dies with it
+		updater.setDaemon(daemon);
+		updater.start();
+	}
 
-		for (Artifact artifact : toDownload)
+	/**
+	 * Periodically stage updates until the client exits
+	 *
+	 * @param interval minutes between checks for updates
+	 */
+	private static void pollUpdates(Runnable stageUpdate, Future<Process> client, int interval)
+	{
+		try
 		{
-			File dest = new File(REPO_DIR, artifact.getName());
-			final int total = downloaded;
-
-			// Check if there is a diff we can download instead
-			Diff diff = diffs.get(artifact);
-			if (diff != null)
+			Process process = client.get();
+			while (true)
 			{
-				log.debug("Downloading diff {}", diff.getName());
-
-				try
+				if (process == null)
 				{
-					ByteArrayOutputStream out = new ByteArrayOutputStream();
-					final int totalBytes = totalDownloadBytes;
-					download(diff.getPath(), diff.getHash(), (completed) ->
-						SplashScreen.stage(START_PROGRESS, .80, null, diff.getName(), total + completed, totalBytes, true),
-						out);
-					downloaded += diff.getSize();
-
-					File old = new File(REPO_DIR, diff.getFrom());
-					HashCode hash;
-					try (InputStream patchStream = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()));
-						HashingOutputStream fout = new HashingOutputStream(Hashing.sha256(), Files.newOutputStream(dest.toPath())))
-					{
-						new FileByFileV1DeltaApplier().applyDelta(old, patchStream, fout);
-						hash = fout.hash();
-					}
-
-					if (artifact.getHash().equals(hash.toString()))
-					{
-						log.debug("Patching successful for {}", artifact.getName());
-						continue;
-					}
-
-					log.debug("Patched artifact hash mismatches! {}: got {} expected {}", artifact.getName(), hash.toString(), artifact.getHash());
+					Thread.sleep(TimeUnit.MINUTES.toMillis(interval));
 				}
-				catch (IOException | VerificationException e)
+				else if (process.waitFor(interval, TimeUnit.MINUTES))
 				{
-					log.warn("unable to download patch {}", diff.getName(), e);
-					// Fall through and try downloading the full artifact
+					log.debug("Client exited, stopping background updates");
+					return;
 				}
 
-				// Adjust the download size for the difference
-				totalDownloadBytes -= diff.getSize();
-				totalDownloadBytes += artifact.getSize();
-			}
-
-			log.debug("Downloading {}", artifact.getName());
-
-			try (OutputStream fout = Files.newOutputStream(dest.toPath()))
-			{
-				final int totalBytes = totalDownloadBytes;
-				download(artifact.getPath(), artifact.getHash(), (completed) ->
-					SplashScreen.stage(START_PROGRESS, .80, null, artifact.getName(), total + completed, totalBytes, true),
-					fout);
-				downloaded += artifact.getSize();
-			}
-			catch (VerificationException e)
-			{
-				log.warn("unable to verify jar {}", artifact.getName(), e);
+				log.debug("Checking for updates");
+				stageUpdate.run();
 			}
 		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException | CancellationException ex)
+		{
+			log.debug("Client did not start, not checking for updates");
+		}
 	}
 
-	private static void clean(List<Artifact> artifacts)
+	/**
+	 * Download the latest bootstrap and stage its artifacts for the next launch. Runs in the background
+	 * while the client is already running from the last verified artifacts.
+	 */
+	private static void stageUpdate(boolean isStaging, int hedgeDelay, int ttl, boolean nodiff, RateLimiter limiter,
+		List<String> jvmParams, CdsArchive launcherCds, StagingArea stagingArea, BootstrapCache verifiedBootstrap)
 	{
-		File[] existingFiles = REPO_DIR.listFiles();
-
-		if (existingFiles == null)
+		try
 		{
-			return;
-		}
+			Bootstrap bootstrap = getBootstrap(isStaging, hedgeDelay, ttl);
+			if (isLauncherTooOld(bootstrap) || isJvmTooOld(bootstrap))
+			{
+				// Force the next launch through the normal path so the user is told to update
+				log.warn("Latest bootstrap requires a newer launcher or JVM");
+				verifiedBootstrap.clear();
+				return;
+			}
 
-		Set<String> artifactNames = new HashSet<>();
-		for (Artifact artifact : artifacts)
-		{
-			artifactNames.add(artifact.getName());
-			if (artifact.getDiffs() != null)
+			PackrConfig.updateLauncherArgs(bootstrap, jvmParams, launcherCds);
+
+			List<Artifact> artifacts = getArtifacts(bootstrap);
+			if (isInstalled(artifacts))
 			{
-				// Keep around the old files which diffs are from
-				for (Diff diff : artifact.getDiffs())
-				{
-					artifactNames.add(diff.getFrom());
-				}
+				log.debug("Artifacts are up to date");
+				verifiedBootstrap.store(bootstrap);
+				return;
 			}
-		}
 
-		for (File file : existingFiles)
-		{
-			if (file.isFile() && !artifactNames.contains(file.getName()))
+			// A single transfer at a time keeps the cpu used for patching and hashing down too
+			download(artifacts, nodiff, 1, 1, stagingArea.getIndex(), limiter);
+
+			for (Artifact artifact : artifacts)
 			{
-				if (file.delete())
+				if (!artifact.getHash().equals(stagedHash(artifact, stagingArea)))
 				{
-					log.debug("Deleted old artifact {}", file);
-				}
-				else
-				{
-					log.warn("Unable to delete old artifact {}", file);
+					log.warn("Unable to stage {}", artifact.getName());
+					return;
 				}
 			}
+
+			stagingArea.commit(bootstrap);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to stage update", ex);
 		}
 	}
 
-	private static void verifyJarHashes(List<Artifact> artifacts) throws VerificationException
+	private static String stagedHash(Artifact artifact, StagingArea stagingArea)
 	{
-		for (Artifact artifact : artifacts)
+		if (OBJECT_STORE.contains(artifact.getHash()))
+		{
+			return artifact.getHash();
+		}
+
+		for (HashIndex index : new HashIndex[]{stagingArea.getIndex(), HASH_INDEX})
 		{
-			String expectedHash = artifact.getHash();
-			String fileHash;
 			try
 			{
-				fileHash = hash(new File(REPO_DIR, artifact.getName()));
-			}
-			catch (IOException e)
-			{
-				throw new VerificationException("unable to hash file", e);
+				String hash = index.hash(new File(index.getDir(), artifact.getName()));
+				if (hash.equals(artifact.getHash()))
+				{
+					return hash;
+				}
 			}
-
-			if (!fileHash.equals(expectedHash))
+			catch (IOException ex)
 			{
-				log.warn("Expected {} for {} but got {}", expectedHash, artifact.getName(), fileHash);
-				throw new VerificationException("Expected " + expectedHash + " for " + artifact.getName() + " but got " + fileHash);
+				// not in this directory
 			}
-
-			log.info("Verified hash of {}", artifact.getName());
 		}
+		return null;
 	}
 
-	private static String hash(File file) throws IOException
+	private static boolean isLauncherTooOld(Bootstrap bootstrap)
 	{
-		HashFunction sha256 = Hashing.sha256();
-		return com.google.common.io.Files.asByteSource(file).hash(sha256).toString();
+		return bootstrap.getRequiredLauncherVersion() != null &&
+			compareVersion(bootstrap.getRequiredLauncherVersion(), LauncherProperties.getVersion()) > 0;
 	}
 
-	private static Certificate getCertificate() throws CertificateException
+	private static boolean isJvmTooOld(Bootstrap bootstrap)
 	{
-		CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
+		try
+		{
+			if (bootstrap.getRequiredJVMVersion() != null)
+			{
+				return Runtime.Version.parse(bootstrap.getRequiredJVMVersion())
+					.compareTo(Runtime.version()) > 0;
+			}
+		}
+		catch (IllegalArgumentException e)
+		{
+			log.warn("Unable to parse bootstrap version", e);
+		}
+		return false;
+	}
+
+	/**
+	 * Determine the artifacts of the bootstrap for this OS
+	 */
+	private static List<Artifact> getArtifacts(Bootstrap bootstrap)
+	{
+		return Arrays.stream(bootstrap.getArtifacts())
+			.filter(a ->
+			{
+				if (a.getPlatform() == null)
+				{
+					return true;
+				}
+
+				final String os = System.getProperty("os.name");
+				final String arch = System.getProperty("os.arch");
+				for (Platform platform : a.getPlatform())
+				{
+					if (platform.getName() == null)
+					{
+						continue;
+					}
+
+					OS.OSType platformOs = OS.parseOs(platform.getName());
+					if ((platformOs == OS.OSType.Other ? platform.getName().equals(os) : platformOs == OS.getOs())
+						&& (platform.getArch() == null || platform.getArch().equals(arch)))
+					{
+						return true;
+					}
+				}
+
+				return false;
+			})
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Check if all of the artifacts are in the repository with the expected hashes
+	 */
+	private static boolean isInstalled(List<Artifact> artifacts)
+	{
+		for (Artifact artifact : artifacts)
+		{
+			try
+			{
+				if (!artifact.getHash().equals(hash(artifactFile(artifact))))
+				{
+					return false;
+				}
+			}
+			catch (IOException ex)
+			{
+				return false;
+			}
+		}
+
+		HASH_INDEX.save();
+		return true;
+	}
+
+	/**
+	 * Fetch the bootstrap, racing the fallback url against the primary url if the primary hasn't answered
+	 * within hedgeDelay ms. The first valid bootstrap wins and the other request is cancelled.
+	 *
+	 * @param hedgeDelay delay before also requesting the fallback url, or -1 to only use the fallback if the
+	 *                   primary url fails
+	 * @param ttl        time in seconds for which a cached bootstrap is used without asking the server
+	 */
+	private static Bootstrap getBootstrap(boolean isStaging, int hedgeDelay, int ttl) throws IOException
+	{
+		final BootstrapCache cache = new BootstrapCache(RUNELITE_DIR, isStaging ? "bootstrap-staging" : "bootstrap");
+		if (cache.isFresh(TimeUnit.SECONDS.toMillis(ttl)))
+		{
+			log.debug("Using cached bootstrap");
+			return cache.get();
+		}
+
+		final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("bootstrap-%d")
+			.setDaemon(true)
+			.build());
+		try
+		{
+			CompletionService<Bootstrap> completionService = new ExecutorCompletionService<>(executor);
+			completionService.submit(() -> fetchBootstrap(isStaging, false, cache));
+			int pending = 1;
+			boolean fallbackStarted = false;
+			IOException failure = null;
+
+			while (pending > 0)
+			{
+				Future<Bootstrap> future;
+				if (fallbackStarted || hedgeDelay < 0)
+				{
+					future = completionService.take();
+				}
+				else
+				{
+					future = completionService.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+					if (future == null)
+					{
+						log.debug("Bootstrap request is slow, also requesting secondary URL");
+						completionService.submit(() -> fetchBootstrap(isStaging, true, cache));
+						fallbackStarted = true;
+						++pending;
+						continue;
+					}
+				}
+
+				--pending;
+				try
+				{
+					return future.get();
+				}
+				catch (ExecutionException ex)
+				{
+					IOException cause = ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+					if (failure == null)
+					{
+						failure = cause;
+					}
+					else
+					{
+						failure.addSuppressed(cause);
+					}
+				}
+
+				if (!fallbackStarted)
+				{
+					log.warn("Error downloading bootstrap, falling back to secondary URL", failure);
+					completionService.submit(() -> fetchBootstrap(isStaging, true, cache));
+					fallbackStarted = true;
+					++pending;
+				}
+			}
+
+			throw failure;
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while downloading bootstrap");
+		}
+		finally
+		{
+			// Interrupting the request which lost the race makes HttpTransport abandon it, which closes its connection
+			executor.shutdownNow();
+		}
+	}
+
+	private static Bootstrap fetchBootstrap(boolean isStaging, boolean isFallback, BootstrapCache cache) throws IOException
+	{
+		URI uri = getBootstrapUrl(isStaging, isFallback);
+		HttpRequest.Builder request = HttpTransport.request(uri);
+		cache.addValidators(request, uri);
+
+		// The bootstrap is small, so bound the whole request rather than watching the body for stalls
+		HttpResponse<byte[]> response = HttpTransport.send(request.build(), HttpResponse.BodyHandlers.ofByteArray(),
+			Duration.ofMillis(BOOTSTRAP_TIMEOUT));
+		if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED)
+		{
+			Bootstrap bootstrap = cache.get();
+			if (bootstrap == null)
+			{
+				throw new IOException("Bootstrap not modified, but there is no cached bootstrap");
+			}
+
+			log.debug("Cached bootstrap is up to date");
+			cache.revalidated();
+			return bootstrap;
+		}
+
+//		URL signatureUrl = new URL(LauncherProperties.getBootstrapSig());
+//		URLConnection signatureConn = signatureUrl.openConnection();
+//		signatureConn.setRequestProperty("User-Agent", USER_AGENT);
+//
+//		try (InputStream i = conn.getInputStream(); InputStream signatureIn = signatureConn.getInputStream())
+		if (!HttpTransport.isSuccess(response))
+		{
+			throw new IOException("Unable to download bootstrap from " + uri + " - HTTP " + response.statusCode());
+		}
+
+		byte[] bytes = response.body();
+//		byte[] signature = ByteStreams.toByteArray(signatureIn);
+//
+//		Certificate certificate = getCertificate();
+//		Signature s = Signature.getInstance("SHA256withRSA");
+//		s.initVerify(certificate);
+//		s.update(bytes);
+//
+//		if (!s.verify(signature))
+//		{
+//			throw new VerificationException("Unable to verify bootstrap signature");
+//		}
+//
+		Bootstrap bootstrap;
+		try
+		{
+			Gson g = new Gson();
+			bootstrap = g.fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException("Unable to parse bootstrap from " + uri, ex);
+		}
+
+		if (bootstrap == null || bootstrap.getArtifacts() == null)
+		{
+			throw new IOException("Invalid bootstrap from " + uri);
+		}
+
+		cache.store(uri, response.headers(), bytes, bootstrap);
+		return bootstrap;
+	}
+
+	private static URI getBootstrapUrl(boolean isStaging, boolean isFallback)
+	{
+		if (isStaging)
+		{
+			return URI.create(isFallback ? LauncherProperties.getBootstrapStagingFallback() : LauncherProperties.getBootstrapStaging());
+		}
+		return URI.create(isFallback ? LauncherProperties.getBootstrapLiveFallback() : LauncherProperties.getBootstrapLive());
+	}
+
+	private static Collection<String> getClientArgs(OptionSet options)
+	{
+		final Collection<String> args = options.nonOptionArguments().stream()
+			.filter(String.class::isInstance)
+			.map(String.class::cast)
+			.collect(Collectors.toCollection(ArrayList::new));
+
+		String clientArgs = System.getenv("RUNELITE_ARGS");
+		if (!Strings.isNullOrEmpty(clientArgs))
+		{
+			args.addAll(Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(clientArgs));
+		}
+
+		clientArgs = (String) options.valueOf("clientargs");
+		if (!Strings.isNullOrEmpty(clientArgs))
+		{
+			args.addAll(Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(clientArgs));
+		}
+
+		return args;
+	}
+
+	/**
+	 * Download the artifacts which aren't up to date in the repository into the directory of target
+	 *
+	 * @param segments number of connections to download each large artifact over
+	 * @param limiter limits the download rate in bytes per second, or null for no limit
+	 */
+	private static void download(List<Artifact> artifacts, boolean nodiff, int threads, int segments, HashIndex target, RateLimiter limiter) throws IOException
+	{
+		List<Artifact> toDownload = new ArrayList<>(artifacts.size());
+		Map<Artifact, List<Diff>> plans = new HashMap<>();
+		int totalDownloadBytes = 0;
+		final boolean isCompatible = new DefaultDeflateCompatibilityWindow().isCompatible();
+
+		if (!isCompatible && !nodiff)
+		{
+			log.debug("System zlib is not compatible with archive-patcher; not using diffs");
+			nodiff = true;
+		}
+
+		for (Artifact artifact : artifacts)
+		{
+			File dest = new File(REPO_DIR, artifact.getName());
+
+			String hash;
+			try
+			{
+				hash = hash(dest);
+			}
+			catch (FileNotFoundException ex)
+			{
+				hash = null;
+			}
+
+			if (Objects.equals(hash, artifact.getHash()))
+			{
+				log.debug("Hash for {} up to date", artifact.getName());
+				continue;
+			}
+
+			if (hash != null && target == HASH_INDEX && !OBJECT_STORE.contains(hash))
+			{
+				// Keep the version being replaced, eg. from before the object store existed, so switching back to it is free
+				OBJECT_STORE.add(dest, hash);
+			}
+
+			// Versions which were downloaded before only need to be linked back into place
+			if (OBJECT_STORE.contains(artifact.getHash()))
+			{
+				File view = new File(target.getDir(), artifact.getName());
+				if (OBJECT_STORE.link(artifact.getHash(), view))
+				{
+					target.record(view, artifact.getHash());
+				}
+				log.debug("{} is already stored", artifact.getName());
+				continue;
+			}
+
+			if (target != HASH_INDEX)
+			{
+				try
+				{
+					if (artifact.getHash().equals(target.hash(new File(target.getDir(), artifact.getName()))))
+					{
+						log.debug("{} is already staged", artifact.getName());
+						continue;
+					}
+				}
+				catch (FileNotFoundException ex)
+				{
+					// not staged yet
+				}
+			}
+
+			int downloadSize = artifact.getSize();
+
+			// See if there are diffs from a local version available
+			if (!nodiff)
+			{
+				List<Diff> plan = planDiffs(artifact);
+				if (plan != null)
+				{
+					log.debug("Patching {} with {} diffs, estimated {}s instead of {}s", artifact.getName(), plan.size(),
+						String.format("%.1f", PatchPlanner.cost(artifact, plan, THROUGHPUT)), String.format("%.1f", THROUGHPUT.full(artifact)));
+					plans.put(artifact, plan);
+					downloadSize = (int) PatchPlanner.size(plan);
+				}
+			}
+
+			toDownload.add(artifact);
+			totalDownloadBytes += downloadSize;
+		}
+
+		final double START_PROGRESS = .15;
+		// Updates staged in the background mustn't draw over the client starting up
+		final boolean foreground = target == HASH_INDEX;
+		if (foreground)
+		{
+			SplashScreen.stage(START_PROGRESS, "Downloading", "");
+		}
+
+		if (toDownload.isEmpty())
+		{
+			return;
+		}
+
+		// Only files with mirrors need their hosts ranked
+		List<String> mirrored = new ArrayList<>();
+		for (Artifact artifact : toDownload)
+		{
+			addMirrored(mirrored, artifact.getPath(), artifact.getMirrors());
+			for (Diff diff : plans.getOrDefault(artifact, Collections.emptyList()))
+			{
+				addMirrored(mirrored, diff.getPath(), diff.getMirrors());
+			}
+		}
+		MIRRORS.probe(mirrored);
+
+		final DownloadProgress progress = new DownloadProgress(START_PROGRESS, .80, totalDownloadBytes, limiter, foreground);
+		final StageTimings timings = new StageTimings();
+		final long start = System.nanoTime();
+		final int nThreads = Math.max(1, Math.min(threads, toDownload.size()));
+		log.debug("Downloading {} artifacts using {} threads", toDownload.size(), nThreads);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads, new ThreadFactoryBuilder()
+			.setNameFormat("download-%d")
+			.setDaemon(true)
+			// Inherit the priority of the updater when downloading in the background
+			.setPriority(Thread.currentThread().getPriority())
+			.build());
+		try
+		{
+			List<Future<?>> futures = new ArrayList<>(toDownload.size());
+			for (Artifact artifact : toDownload)
+			{
+				List<Diff> plan = plans.get(artifact);
+				futures.add(executor.submit(() ->
+				{
+					download(artifact, plan, segments, progress, target, timings);
+					return null;
+				}));
+			}
+
+			for (Future<?> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException ex)
+				{
+					Throwables.throwIfInstanceOf(ex.getCause(), IOException.class);
+					Throwables.throwIfUnchecked(ex.getCause());
+					throw new IOException(ex.getCause());
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("interrupted while downloading artifacts");
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+			target.save();
+			THROUGHPUT.save();
+			MIRRORS.save();
+			log.info("Downloaded {} artifacts in {}ms, time per stage: {}", toDownload.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timings);
+		}
+	}
+
+	/**
+	 * Plan the fastest way to patch the artifact from a local version, given the measured throughput
+	 *
+	 * @return the diffs to apply in order, or null if the full artifact should be downloaded
+	 */
+	private static List<Diff> planDiffs(Artifact artifact)
+	{
+		return PatchPlanner.plan(artifact, diff ->
+		{
+			try
+			{
+				return diffBase(diff) != null;
+			}
+			catch (IOException ex)
+			{
+				return false;
+			}
+		}, THROUGHPUT);
+	}
+
+	/**
+	 * Print how each artifact would be updated, and the estimated bytes and time
+	 */
+	private static void printPlan(List<Artifact> artifacts, boolean nodiff) throws IOException
+	{
+		nodiff |= !new DefaultDeflateCompatibilityWindow().isCompatible();
+
+		System.out.printf("Network %.0f KiB/s, patching %.0f KiB/s%n", THROUGHPUT.getNetworkRate() / 1024, THROUGHPUT.getPatchRate() / 1024);
+		long totalBytes = 0;
+		double totalSeconds = 0;
+		for (Artifact artifact : artifacts)
+		{
+			String hash;
+			try
+			{
+				hash = hash(new File(REPO_DIR, artifact.getName()));
+			}
+			catch (FileNotFoundException ex)
+			{
+				hash = null;
+			}
+
+			String strategy;
+			long bytes = 0;
+			double seconds = 0;
+			if (artifact.getHash().equals(hash))
+			{
+				strategy = "up to date";
+			}
+			else if (OBJECT_STORE.contains(artifact.getHash()))
+			{
+				strategy = "link stored version";
+			}
+			else
+			{
+				List<Diff> plan = nodiff ? null : planDiffs(artifact);
+				if (plan == null)
+				{
+					strategy = "full download";
+					bytes = artifact.getSize();
+				}
+				else
+				{
+					strategy = plan.size() == 1 ? "diff from " + plan.get(0).getFrom() : "chain of " + plan.size() + " diffs from " + plan.get(0).getFrom();
+					bytes = PatchPlanner.size(plan);
+				}
+				seconds = PatchPlanner.cost(artifact, plan, THROUGHPUT);
+			}
+
+			System.out.printf("%-40s %-40s %12d bytes %8.1fs%n", artifact.getName(), strategy, bytes, seconds);
+			totalBytes += bytes;
+			totalSeconds += seconds;
+		}
+		System.out.printf("%-81s %12d bytes %8.1fs%n", "total", totalBytes, totalSeconds);
+		HASH_INDEX.save();
+	}
+
+	private static void addMirrored(List<String> paths, String path, String[] mirrors)
+	{
+		if (mirrors != null && mirrors.length > 0)
+		{
+			paths.add(path);
+			Collections.addAll(paths, mirrors);
+		}
+	}
+
+	/**
+	 * @param plan diffs to apply in order from a local version, or null to download the full artifact
+	 * @param segments number of connections to download the full artifact over, if it is large enough
+	 */
+	private static void download(Artifact artifact, List<Diff> plan, int segments, DownloadProgress progress, HashIndex target, StageTimings timings) throws IOException
+	{
+		File dest = new File(target.getDir(), artifact.getName());
+
+		// Check if there is a diff we can download instead
+		if (plan != null)
+		{
+			List<DownloadProgress.Transfer> transfers = new ArrayList<>(plan.size());
+			List<File> patchedFiles = new ArrayList<>(plan.size());
+			try
+			{
+				File old = diffBase(plan.get(0));
+				if (old == null)
+				{
+					throw new FileNotFoundException("base of " + plan.get(0).getName() + " is missing");
+				}
+
+				for (Diff diff : plan)
+				{
+					log.debug("Downloading diff {}", diff.getName());
+
+					DownloadProgress.Transfer transfer = progress.track(diff.getName());
+					transfers.add(transfer);
+					File patched = new File(target.getDir(), artifact.getName() + PATCHED_SUFFIX + (patchedFiles.isEmpty() ? "" : patchedFiles.size()));
+					patchedFiles.add(patched);
+
+					// Apply the patch as it downloads, while the download continues into a bounded pipe
+					final long start = System.nanoTime();
+					// The diff is fetched and inflated, patched, and hashed and written by separate threads
+					HashCode diffHash;
+					String hash;
+					String source = MIRRORS.rank(diff.getPath(), diff.getMirrors(), diff.getSize()).get(0);
+					try (PipedDownload pipe = new PipedDownload(diff.getName(), openStream(source),
+							Math.max(MIN_PATCH_PIPE_SIZE, Math.min(diff.getSize(), MAX_PATCH_PIPE_SIZE)), transfer, timings);
+						PipedFileOutput output = new PipedFileOutput(patched.getName(), patched, MIN_PATCH_PIPE_SIZE * 16, timings))
+					{
+						StageTimings.TimedInputStream patchIn = new StageTimings.TimedInputStream(pipe.getInputStream());
+						StageTimings.TimedOutputStream patchOut = new StageTimings.TimedOutputStream(output.getOutputStream());
+						long patchStart = System.nanoTime();
+						new FileByFileV1DeltaApplier().applyDelta(old, patchIn, patchOut);
+						timings.add(StageTimings.Stage.PATCH, System.nanoTime() - patchStart - patchIn.getNanos() - patchOut.getNanos());
+						diffHash = pipe.finish();
+						hash = output.finish();
+					}
+
+					if (!diff.getHash().equals(diffHash.toString()))
+					{
+						throw new VerificationException("Unable to verify resource " + diff.getPath() + " - expected " + diff.getHash() + " got " + diffHash.toString());
+					}
+
+					// Each intermediate version is verified before the next diff is applied to it
+					String expected = PatchPlanner.toHash(artifact, diff);
+					if (!expected.equals(hash))
+					{
+						throw new VerificationException("Patched artifact hash mismatches! " + artifact.getName() + ": got " + hash + " expected " + expected);
+					}
+
+					if (!progress.isLimited())
+					{
+						THROUGHPUT.recordPatch(artifact.getSize(), diff.getSize(), System.nanoTime() - start);
+					}
+
+					old = patched;
+				}
+
+				log.debug("Patching successful for {}", artifact.getName());
+				commit(artifact, old, dest, target, timings);
+				return;
+			}
+			catch (IOException | VerificationException e)
+			{
+				log.warn("unable to patch {}", artifact.getName(), e);
+				// Fall through and try downloading the full artifact
+			}
+			finally
+			{
+				patchedFiles.forEach(File::delete);
+			}
+
+			// Adjust the download size for the difference
+			transfers.forEach(DownloadProgress.Transfer::rollback);
+			progress.adjustTotal(artifact.getSize() - (int) PatchPlanner.size(plan));
+		}
+
+		log.debug("Downloading {}", artifact.getName());
+
+		DownloadProgress.Transfer transfer = progress.track(artifact.getName());
+		List<String> sources = new ArrayList<>(MIRRORS.rank(artifact.getPath(), artifact.getMirrors(), artifact.getSize()));
+		final long start = System.nanoTime();
+		try
+		{
+			int index = 0;
+			int failures = 0;
+			while (true)
+			{
+				String source = sources.get(index % sources.size());
+				final long sourceStart = System.nanoTime();
+				final int sourceTransferred = transfer.getTransferred();
+				try
+				{
+					// Rate limited downloads gain nothing from more connections
+					boolean segmented = segments > 1 && artifact.getSize() >= MIN_SEGMENTED_SIZE && !progress.isLimited()
+						&& new SegmentedDownload(source, artifact.getHash(), artifact.getSize(), dest, transfer, timings).download(segments);
+					if (!segmented)
+					{
+						download(source, artifact.getHash(), artifact.getSize(), transfer, dest, timings);
+					}
+					if (!progress.isLimited())
+					{
+						MIRRORS.recordThroughput(source, transfer.getTransferred() - sourceTransferred, System.nanoTime() - sourceStart);
+					}
+					break;
+				}
+				catch (VerificationException ex)
+				{
+					// A stale or corrupt source, which would serve the same bytes again
+					MIRRORS.recordFailure(source);
+					// Nothing downloaded so far can be trusted, so the next source starts over
+					PartialDownload.delete(dest);
+					transfer.rollback();
+					sources.remove(source);
+					if (sources.isEmpty())
+					{
+						throw ex;
+					}
+
+					log.warn("Download of {} from {} failed verification, downloading it from {}", artifact.getName(), source,
+						sources.get(index % sources.size()), ex);
+				}
+				catch (IOException ex)
+				{
+					if (Thread.currentThread().isInterrupted())
+					{
+						throw ex;
+					}
+
+					MIRRORS.recordFailure(source);
+					// A stall is retried even from the same source, other errors only if there is another source
+					boolean stalled = ex instanceof StallDetector.StalledException;
+					++failures;
+					if (failures >= MAX_SOURCE_ATTEMPTS || (!stalled && failures >= sources.size()))
+					{
+						throw ex;
+					}
+
+					// The .part file is kept, so this resumes the download on a new connection
+					++index;
+					log.warn("Download of {} from {} failed, resuming from {}", artifact.getName(), source,
+						sources.get(index % sources.size()), ex);
+					HttpTransport.reset(URI.create(source));
+				}
+			}
+
+			if (!progress.isLimited())
+			{
+				THROUGHPUT.recordNetwork(transfer.getTransferred(), System.nanoTime() - start);
+			}
+		}
+		catch (VerificationException e)
+		{
+			log.warn("unable to verify jar {}", artifact.getName(), e);
+			transfer.rollback();
+			return;
+		}
+
+		commit(artifact, dest, dest, target, timings);
+	}
+
+	/**
+	 * Move a verified artifact into place, add it to the object store and record its hash
+	 */
+	private static void commit(Artifact artifact, File file, File dest, HashIndex target, StageTimings timings) throws IOException
+	{
+		final long start = System.nanoTime();
+		if (!file.equals(dest))
+		{
+			move(file, dest);
+		}
+
+		if (OBJECT_STORE.add(dest, artifact.getHash()))
+		{
+			target.record(dest, artifact.getHash());
+		}
+		timings.add(StageTimings.Stage.COMMIT, System.nanoTime() - start);
+	}
+
+	/**
+	 * Find a file which a diff can be applied to. Diffs are matched on the hash of their base, so any stored
+	 * version with the right content can be used regardless of the name it was downloaded as.
+	 *
+	 * @return the base, or null if there isn't one
+	 */
+	private static File diffBase(Diff diff) throws IOException
+	{
+		if (OBJECT_STORE.contains(diff.getFromHash()))
+		{
+			return OBJECT_STORE.get(diff.getFromHash());
+		}
+
+		File old = new File(REPO_DIR, diff.getFrom());
+		try
+		{
+			return diff.getFromHash().equals(hash(old)) ? old : null;
+		}
+		catch (FileNotFoundException ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Get the file of an artifact in the repository. This is normally a link into the object store, but the
+	 * object is used directly if the filesystem doesn't support links.
+	 */
+	private static File artifactFile(Artifact artifact)
+	{
+		File view = new File(REPO_DIR, artifact.getName());
+		File object = OBJECT_STORE.get(artifact.getHash());
+		if (object.isFile())
+		{
+			try
+			{
+				if (!artifact.getHash().equals(hash(view)))
+				{
+					return object;
+				}
+			}
+			catch (IOException ex)
+			{
+				return object;
+			}
+		}
+		return view;
+	}
+
+	private static void clean(List<Artifact> artifacts)
+	{
+		File[] existingFiles = REPO_DIR.listFiles();
+
+		if (existingFiles == null)
+		{
+			return;
+		}
+
+		Set<String> artifactNames = new HashSet<>();
+		for (Artifact artifact : artifacts)
+		{
+			artifactNames.add(artifact.getName());
+			// Keep around interrupted downloads so they can be resumed
+			artifactNames.add(artifact.getName() + PartialDownload.PART_SUFFIX);
+			artifactNames.add(artifact.getName() + PartialDownload.STATE_SUFFIX);
+		}
+
+		for (File file : existingFiles)
+		{
+			if (file.isFile() && !artifactNames.contains(file.getName()) && !file.getName().equals(HashIndex.INDEX_NAME))
+			{
+				if (file.getName().endsWith(".jar"))
+				{
+					// Old versions and artifacts of other channels stay in the object store, including the bases of diffs
+					try
+					{
+						String hash = hash(file);
+						if (!OBJECT_STORE.contains(hash))
+						{
+							OBJECT_STORE.add(file, hash);
+						}
+					}
+					catch (IOException ex)
+					{
+						log.warn("unable to store old artifact {}", file, ex);
+					}
+				}
+
+				if (!file.exists() || TRASH.discard(file))
+				{
+					log.debug("Deleted old artifact {}", file);
+					HASH_INDEX.remove(file);
+				}
+				else
+				{
+					log.warn("Unable to delete old artifact {}", file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Record the launch of the artifacts and evict old versions beyond the retention budgets. Evicted objects
+	 * are deleted in the background.
+	 *
+	 * @param retainSize MiB of artifacts to retain
+	 */
+	private static void retain(List<Artifact> artifacts, int retainSize, int retainVersions)
+	{
+		OBJECT_STORE.retain(artifacts.stream().map(Artifact::getHash).collect(Collectors.toList()),
+			retainSize * 1024L * 1024L, retainVersions, TRASH);
+		TRASH.reap();
+	}
+
+	private static int defaultVerifyThreads(DiskInfo.Type diskType)
+	{
+		int cores = Runtime.getRuntime().availableProcessors();
+		switch (diskType)
+		{
+			case SOLID_STATE:
+				return cores;
+			case ROTATIONAL:
+				// Concurrent reads of different files on a spinning disk just cause seeking
+				log.debug("Repository is on a rotational disk, verifying serially");
+				return 1;
+			default:
+				log.debug("Unable to determine the repository disk type, verifying with at most {} threads", UNKNOWN_DISK_VERIFY_THREADS);
+				return Math.min(cores, UNKNOWN_DISK_VERIFY_THREADS);
+		}
+	}
+
+	/**
+	 * Verify the hashes of the artifacts, hashing them concurrently
+	 *
+	 * @param threads maximum number of artifacts to hash at once
+	 */
+	private static void verifyJarHashes(List<Artifact> artifacts, int threads) throws VerificationException
+	{
+		final int nThreads = Math.max(1, Math.min(threads, artifacts.size()));
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads, new ThreadFactoryBuilder()
+			.setNameFormat("verify-%d")
+			.setDaemon(true)
+			.build());
+		try
+		{
+			// Start with the largest artifacts so the stage takes roughly as long as the largest one
+			List<Artifact> sorted = new ArrayList<>(artifacts);
+			sorted.sort(Comparator.comparingInt(Artifact::getSize).reversed());
+
+			CompletionService<Artifact> completionService = new ExecutorCompletionService<>(executor);
+			for (Artifact artifact : sorted)
+			{
+				completionService.submit(() ->
+				{
+					String expectedHash = artifact.getHash();
+					String fileHash;
+					try
+					{
+						fileHash = hash(artifactFile(artifact));
+					}
+					catch (IOException e)
+					{
+						throw new VerificationException("unable to hash file", e);
+					}
+
+					if (!fileHash.equals(expectedHash))
+					{
+						log.warn("Expected {} for {} but got {}", expectedHash, artifact.getName(), fileHash);
+						throw new VerificationException("Expected " + expectedHash + " for " + artifact.getName() + " but got " + fileHash);
+					}
+
+					log.info("Verified hash of {}", artifact.getName());
+					return artifact;
+				});
+			}
+
+			final int total = artifacts.stream().mapToInt(Artifact::getSize).sum();
+			final long start = System.nanoTime();
+			int verified = 0;
+			for (int i = 0; i < sorted.size(); ++i)
+			{
+				Artifact artifact;
+				try
+				{
+					artifact = completionService.take().get();
+				}
+				catch (ExecutionException ex)
+				{
+					// Fail on the first mismatch, the remaining tasks are cancelled below
+					Throwables.throwIfInstanceOf(ex.getCause(), VerificationException.class);
+					throw new VerificationException("unable to verify artifacts", ex.getCause());
+				}
+
+				verified += artifact.getSize();
+				double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+				SplashScreen.stage(.80, .90, null, String.format("%.1f MiB/s", verified / seconds / (1024 * 1024)), verified, total, true);
+			}
+
+			log.debug("Verified {} artifacts in {}ms using {} threads", artifacts.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), nThreads);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new VerificationException("interrupted while verifying artifacts", ex);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			HASH_INDEX.save();
+		}
+	}
+
+	private static String hash(File file) throws IOException
+	{
+		return HASH_INDEX.hash(file);
+	}
+
+	private static Certificate getCertificate() throws CertificateException
+	{
+		CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
 		Certificate certificate = certFactory.generateCertificate(Launcher.class.getResourceAsStream("runelite.crt"));
 		return certificate;
 	}
@@ -777,38 +1754,143 @@ public class Launcher
 		});
 	}
 
-	private static void download(String path, String hash, IntConsumer progress, OutputStream out) throws IOException, VerificationException
+	private static InputStream openStream(String path) throws IOException
+	{
+		URI uri = URI.create(path);
+		HttpResponse<InputStream> response = HttpTransport.send(HttpTransport.request(uri).build(),
+			HttpResponse.BodyHandlers.ofInputStream());
+		if (!HttpTransport.isSuccess(response))
+		{
+			// Closing the body releases the connection for reuse
+			response.body().close();
+			throw new IOException("Unable to download " + path + " - HTTP " + response.statusCode());
+		}
+
+		return StallDetector.watch(path, HttpTransport.timeout(uri), response.body());
+	}
+
+	/**
+	 * Download a file to dest, going through a .part file so that an interrupted download can be resumed
+	 * on the next launch. dest is not touched until the download has been verified.
+	 *
+	 * @param size expected size of the file, to recognise a .part file which is already complete
+	 */
+	private static void download(String path, String hash, long size, IntConsumer progress, File dest, StageTimings timings) throws IOException, VerificationException
 	{
-		URL url = new URL(path);
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setRequestProperty("User-Agent", USER_AGENT);
-		conn.getResponseCode();
+		File partFile = PartialDownload.partFile(dest);
+		PartialDownload state = PartialDownload.load(dest);
+		// A segmented partial download is preallocated, so its length isn't the downloaded offset
+		if (state == null || !hash.equals(state.getHash()) || state.getSegments() != null)
+		{
+			PartialDownload.delete(dest);
+			state = new PartialDownload();
+			state.setHash(hash);
+		}
+
+		long offset = partFile.length();
+		if (offset >= size && size > 0)
+		{
+			// The download finished but wasn't moved into place
+			if (hash.equals(HashEngine.hash(partFile)))
+			{
+				move(partFile, dest);
+				PartialDownload.delete(dest);
+				return;
+			}
 
-		InputStream err = conn.getErrorStream();
-		if (err != null)
+			PartialDownload.delete(dest);
+			offset = 0;
+		}
+
+		URI uri = URI.create(path);
+		HttpRequest.Builder request = HttpTransport.request(uri);
+		if (offset > 0)
+		{
+			request.header("Range", "bytes=" + offset + "-");
+			// Only resume if the file hasn't changed since the partial download, otherwise get the whole file
+			state.addIfRange(request, path);
+		}
+
+		HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = HttpTransport.send(request.build(), HttpResponse.BodyHandlers.ofPublisher());
+		int code = response.statusCode();
+
+		if (!HttpTransport.isSuccess(response))
+		{
+			HashingFileSink.discard(response.body());
+			if (code == HTTP_RANGE_NOT_SATISFIABLE)
+			{
+				// The partial download is bogus, start over next time
+				PartialDownload.delete(dest);
+			}
+			throw new IOException("Unable to download " + path + " - HTTP " + code);
+		}
+
+		String contentRange = response.headers().firstValue("Content-Range").orElse(null);
+		boolean resume = offset > 0 && code == HttpURLConnection.HTTP_PARTIAL
+			&& contentRange != null && contentRange.startsWith("bytes " + offset + "-");
+		if (resume)
+		{
+			log.debug("Resuming download of {} from byte {}", path, offset);
+		}
+		else
+		{
+			offset = 0;
+		}
+
+		state.setValidators(path, response.headers());
+		state.save(dest);
+
+		// The digest state can't be persisted, so recover it by rehashing what was already downloaded
+		MessageDigest digest = HashEngine.newDigest();
+		if (resume)
 		{
-			err.close();
-			throw new IOException("Unable to download " + path + " - " + conn.getResponseMessage());
+			HashEngine.update(digest, partFile, offset);
 		}
 
-		int downloaded = 0;
-		HashingOutputStream hout = new HashingOutputStream(Hashing.sha256(), out);
-		try (InputStream in = conn.getInputStream())
+		progress.accept((int) offset);
+		final long start = System.nanoTime();
+		String hashCode;
+		try (FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
 		{
-			int i;
-			byte[] buffer = new byte[1024 * 1024];
-			while ((i = in.read(buffer)) != -1)
+			if (!resume)
+			{
+				channel.truncate(0);
+			}
+
+			// The file grows with each write, so its length is always the offset to resume from
+			HashingFileSink sink = new HashingFileSink(path, channel, offset, digest, progress, HttpTransport.timeout(uri));
+			try
+			{
+				response.body().subscribe(sink);
+				hashCode = sink.await();
+			}
+			finally
 			{
-				hout.write(buffer, 0, i);
-				downloaded += i;
-				progress.accept(downloaded);
+				timings.add(StageTimings.Stage.WRITE, sink.getWriteNanos());
+				timings.add(StageTimings.Stage.FETCH, System.nanoTime() - start - sink.getWriteNanos());
 			}
 		}
 
-		HashCode hashCode = hout.hash();
-		if (!hash.equals(hashCode.toString()))
+		if (!hash.equals(hashCode))
+		{
+			PartialDownload.delete(dest);
+			throw new VerificationException("Unable to verify resource " + path + " - expected " + hash + " got " + hashCode);
+		}
+
+		move(partFile, dest);
+		PartialDownload.delete(dest);
+	}
+
+	static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
 		{
-			throw new VerificationException("Unable to verify resource " + path + " - expected " + hash + " got " + hashCode.toString());
+			log.debug("atomic move not supported", ex);
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
 		}
 	}
 
@@ -843,14 +1925,15 @@ public class Launcher
 		sc.init(null, new TrustManager[]{trustManager}, new SecureRandom());
 		HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
 		HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
+		HttpTransport.setSslContext(sc, false);
 	}
 
-	private static void postInstall(List<String> jvmParams)
+	private static void postInstall(List<String> jvmParams, CdsArchive launcherCds)
 	{
 		Bootstrap bootstrap;
 		try
 		{
-			bootstrap = getBootstrap(false);
+			bootstrap = getBootstrap(false, DEFAULT_BOOTSTRAP_HEDGE_DELAY, 0);
 		}
 		catch (IOException ex)
 		{
@@ -858,7 +1941,7 @@ public class Launcher
 			return;
 		}
 
-		PackrConfig.updateLauncherArgs(bootstrap, jvmParams);
+		PackrConfig.updateLauncherArgs(bootstrap, jvmParams, launcherCds);
 
 		log.info("Performed postinstall steps");
 	}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks which of the urls of an artifact to download it from. Each host is scored by its latency, measured
+ * with a HEAD request, and by the throughput of earlier downloads from it. The scores are kept across runs,
+ * since which host is fastest depends on where the user is rather than on the artifact.
+ */
+@Slf4j
+class MirrorSelector
+{
+	// Hosts expected to take within this factor of the fastest are considered equally good, and load is spread between them
+	private static final double EQUIVALENT = 1.1;
+	// A host which failed recently is only used once every other host has been tried
+	private static final long FAILURE_COOLDOWN = TimeUnit.MINUTES.toMillis(10);
+	private static final long PROBE_INTERVAL = TimeUnit.DAYS.toMillis(1);
+	private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(3);
+	private static final long MIN_SAMPLE_BYTES = 256 * 1024;
+	private static final double ALPHA = 0.3;
+
+	@Data
+	private static class Score
+	{
+		/**
+		 * Bytes per second, or 0 if nothing has been downloaded from the host
+		 */
+		private double throughput;
+		/**
+		 * Time to the response headers in nanoseconds
+		 */
+		private long latency;
+		private long lastProbe;
+		private long lastFailure;
+	}
+
+	private final File file;
+	private final ThroughputStats throughputStats;
+	private Map<String, Score> scores = new HashMap<>();
+	private boolean dirty;
+
+	/**
+	 * @param throughputStats used to estimate the throughput of hosts which haven't been downloaded from yet
+	 */
+	MirrorSelector(File file, ThroughputStats throughputStats)
+	{
+		this.file = file;
+		this.throughputStats = throughputStats;
+		load();
+	}
+
+	private void load()
+	{
+		if (!file.exists())
+		{
+			return;
+		}
+
+		Type type = new TypeToken<Map<String, Score>>()
+		{
+		}.getType();
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			Map<String, Score> loaded = new Gson().fromJson(reader, type);
+			if (loaded != null)
+			{
+				scores = loaded;
+			}
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load mirror scores", ex);
+		}
+	}
+
+	/**
+	 * Measure the latency of the hosts of the given urls which haven't been probed recently. The hosts are
+	 * probed in parallel, and this waits for at most {@link #PROBE_TIMEOUT}.
+	 */
+	void probe(Collection<String> paths)
+	{
+		final long now = System.currentTimeMillis();
+		Map<String, URI> toProbe = new LinkedHashMap<>();
+		synchronized (this)
+		{
+			for (String path : paths)
+			{
+				URI uri = URI.create(path);
+				String host = HttpTransport.host(uri);
+				Score score = scores.get(host);
+				if (score == null || now - score.getLastProbe() > PROBE_INTERVAL)
+				{
+					toProbe.putIfAbsent(host, uri);
+				}
+			}
+		}
+
+		if (toProbe.isEmpty())
+		{
+			return;
+		}
+
+		Map<String, CompletableFuture<?>> futures = new HashMap<>();
+		for (Map.Entry<String, URI> entry : toProbe.entrySet())
+		{
+			final String host = entry.getKey();
+			final long start = System.nanoTime();
+			HttpRequest request = HttpTransport.request(entry.getValue())
+				.method("HEAD", HttpRequest.BodyPublishers.noBody())
+				.timeout(PROBE_TIMEOUT)
+				.build();
+			futures.put(host, HttpTransport.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.whenComplete((response, ex) ->
+				{
+					if (ex != null || !HttpTransport.isSuccess(response))
+					{
+						log.debug("Probe of {} failed: {}", host, ex != null ? ex.toString() : "HTTP " + response.statusCode());
+						markFailed(host);
+					}
+					else
+					{
+						recordLatency(host, System.nanoTime() - start);
+					}
+				}));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+				.get(PROBE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException | TimeoutException ex)
+		{
+			// The failures have been recorded by the probes themselves
+		}
+	}
+
+	/**
+	 * Order the urls of a file from the expected fastest to the slowest, with hosts which have failed recently
+	 * last. Urls which are expected to be about as fast as the fastest are shuffled to spread the load.
+	 *
+	 * @param mirrors alternate urls for path, or null
+	 */
+	synchronized List<String> rank(String path, String[] mirrors, long size)
+	{
+		List<String> paths = new ArrayList<>();
+		paths.add(path);
+		if (mirrors != null)
+		{
+			Collections.addAll(paths, mirrors);
+		}
+		if (paths.size() == 1)
+		{
+			return paths;
+		}
+
+		final long now = System.currentTimeMillis();
+		Map<String, Double> estimates = new HashMap<>();
+		List<String> healthy = new ArrayList<>();
+		List<String> failed = new ArrayList<>();
+		for (String p : paths)
+		{
+			String host = HttpTransport.host(URI.create(p));
+			Score score = scores.get(host);
+			if (score != null && now - score.getLastFailure() < FAILURE_COOLDOWN)
+			{
+				failed.add(p);
+			}
+			else
+			{
+				estimates.put(p, estimate(score, size));
+				healthy.add(p);
+			}
+		}
+
+		healthy.sort(Comparator.comparingDouble(estimates::get));
+		if (!healthy.isEmpty())
+		{
+			double best = estimates.get(healthy.get(0));
+			int equivalent = 1;
+			while (equivalent < healthy.size() && estimates.get(healthy.get(equivalent)) <= best * EQUIVALENT)
+			{
+				++equivalent;
+			}
+			Collections.shuffle(healthy.subList(0, equivalent), ThreadLocalRandom.current());
+		}
+
+		// Try the least recently failed host first
+		failed.sort(Comparator.comparingLong(p -> scores.get(HttpTransport.host(URI.create(p))).getLastFailure()));
+		healthy.addAll(failed);
+		log.debug("Ranked sources of {}: {}", path, healthy);
+		return healthy;
+	}
+
+	/**
+	 * @return estimated seconds to download size bytes from the host
+	 */
+	private double estimate(Score score, long size)
+	{
+		double throughput = score != null && score.getThroughput() > 0 ? score.getThroughput() : throughputStats.getNetworkRate();
+		double latency = score != null ? score.getLatency() / 1e9 : 0;
+		return latency + size / throughput;
+	}
+
+	synchronized void recordThroughput(String path, long bytes, long nanos)
+	{
+		if (bytes < MIN_SAMPLE_BYTES || nanos <= 0)
+		{
+			return;
+		}
+
+		Score score = scores.computeIfAbsent(HttpTransport.host(URI.create(path)), k -> new Score());
+		double sample = bytes / (nanos / 1e9);
+		score.setThroughput(score.getThroughput() > 0 ? score.getThroughput() + ALPHA * (sample - score.getThroughput()) : sample);
+		score.setLastFailure(0);
+		dirty = true;
+	}
+
+	synchronized void recordFailure(String path)
+	{
+		markFailed(HttpTransport.host(URI.create(path)));
+	}
+
+	private synchronized void markFailed(String host)
+	{
+		scores.computeIfAbsent(host, k -> new Score()).setLastFailure(System.currentTimeMillis());
+		dirty = true;
+	}
+
+	private synchronized void recordLatency(String host, long nanos)
+	{
+		Score score = scores.computeIfAbsent(host, k -> new Score());
+		score.setLatency(score.getLatency() > 0 ? (long) (score.getLatency() + ALPHA * (nanos - score.getLatency())) : nanos);
+		score.setLastProbe(System.currentTimeMillis());
+		dirty = true;
+	}
+
+	synchronized void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		try
+		{
+			File tmpFile = File.createTempFile(file.getName(), null, file.getParentFile());
+			try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(scores, writer);
+			}
+			Launcher.move(tmpFile, file);
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save mirror scores", ex);
+		}
+	}
+}
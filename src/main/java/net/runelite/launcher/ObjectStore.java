@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content addressed store of verified artifacts, keyed by SHA-256. Every version of an artifact which has been
+ * downloaded is kept once in the store, and the repository directory is a view of the current bootstrap made
+ * of hard links into it. Switching between versions or channels relinks the view instead of downloading or
+ * copying the artifacts again.
+ * <p>
+ * Objects are only ever added after they have been verified, and are never written to in place, so the
+ * name of an object can be trusted as its hash.
+ * <p>
+ * Old versions are retained as rollback targets and diff bases, and evicted least recently launched first
+ * once the store exceeds its budgets.
+ */
+@Slf4j
+class ObjectStore
+{
+	static final String DIR_NAME = "objects";
+	private static final String LINK_SUFFIX = ".link";
+	private static final String VERSIONS_NAME = "versions.json";
+	private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}");
+	// Objects which aren't part of a launched version yet, eg. an update being staged, are kept for at least this long
+	private static final long UNLAUNCHED_GRACE = TimeUnit.DAYS.toMillis(1);
+
+	private static final Type VERSIONS_TYPE = new TypeToken<List<Version>>()
+	{
+	}.getType();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Version
+	{
+		private Set<String> hashes;
+		private long lastLaunched;
+	}
+
+	@Getter
+	private final File dir;
+	private volatile boolean linksSupported = true;
+
+	ObjectStore(File dir)
+	{
+		this.dir = dir;
+	}
+
+	File get(String hash)
+	{
+		return new File(dir, hash);
+	}
+
+	boolean contains(String hash)
+	{
+		return get(hash).isFile();
+	}
+
+	/**
+	 * Add a verified file to the store. If the content is already stored the file is replaced with a link
+	 * to the existing object.
+	 *
+	 * @return true if the file still holds the content, or false if the filesystem doesn't support links
+	 * and the object must be used in its place
+	 */
+	boolean add(File file, String hash) throws IOException
+	{
+		dir.mkdirs();
+		File object = get(hash);
+		if (!object.isFile() && linksSupported)
+		{
+			try
+			{
+				Files.createLink(object.toPath(), file.toPath());
+				log.debug("Stored {} as {}", file.getName(), hash);
+				return true;
+			}
+			catch (FileAlreadyExistsException ex)
+			{
+				// stored concurrently, link to it below
+			}
+			catch (UnsupportedOperationException | FileSystemException ex)
+			{
+				unsupported(ex);
+			}
+		}
+
+		if (!object.isFile())
+		{
+			Launcher.move(file, object);
+			log.debug("Stored {} as {}", file.getName(), hash);
+			return false;
+		}
+
+		return link(hash, file);
+	}
+
+	/**
+	 * Replace the view with a link to a stored object
+	 *
+	 * @return true if the view was linked, or false if the filesystem doesn't support links and the object
+	 * must be used in its place
+	 */
+	boolean link(String hash, File view) throws IOException
+	{
+		File object = get(hash);
+		if (linksSupported)
+		{
+			File tmp = new File(view.getParentFile(), view.getName() + LINK_SUFFIX);
+			boolean linked = false;
+			try
+			{
+				Files.deleteIfExists(tmp.toPath());
+				Files.createLink(tmp.toPath(), object.toPath());
+				linked = true;
+			}
+			catch (UnsupportedOperationException | FileSystemException ex)
+			{
+				unsupported(ex);
+			}
+
+			if (linked)
+			{
+				try
+				{
+					// Replace the view atomically so it is never missing
+					Launcher.move(tmp, view);
+				}
+				finally
+				{
+					tmp.delete();
+				}
+				log.debug("Linked {} to {}", view.getName(), hash);
+				return true;
+			}
+		}
+
+		// A stale view would otherwise shadow the object
+		Files.deleteIfExists(view.toPath());
+		return false;
+	}
+
+	/**
+	 * Record the launch of a version and evict the least recently launched versions which don't fit in the
+	 * budgets. The launched version is always retained.
+	 *
+	 * @param launched hashes of the artifacts of the launched version
+	 * @param maxBytes total size of the objects to retain
+	 * @param maxVersions number of versions to retain
+	 */
+	synchronized void retain(Collection<String> launched, long maxBytes, int maxVersions, Trash trash)
+	{
+		Set<String> current = new HashSet<>(launched);
+		List<Version> versions = loadVersions();
+		versions.removeIf(version -> version.getHashes().equals(current));
+		versions.add(new Version(current, System.currentTimeMillis()));
+		versions.sort(Comparator.comparingLong(Version::getLastLaunched).reversed());
+
+		File[] objects = dir.listFiles(file -> file.isFile() && OBJECT_NAME.matcher(file.getName()).matches());
+		if (objects == null)
+		{
+			objects = new File[0];
+		}
+
+		Set<String> keep = new HashSet<>();
+		long bytes = 0;
+		boolean full = false;
+		Iterator<Version> it = versions.iterator();
+		for (int i = 0; it.hasNext(); ++i)
+		{
+			Version version = it.next();
+			long size = 0;
+			for (String hash : version.getHashes())
+			{
+				if (!keep.contains(hash))
+				{
+					size += get(hash).length();
+				}
+			}
+
+			// Once a version doesn't fit every older version is evicted too
+			full |= i >= maxVersions || bytes + size > maxBytes;
+			if (full && i > 0)
+			{
+				it.remove();
+				continue;
+			}
+
+			keep.addAll(version.getHashes());
+			bytes += size;
+		}
+
+		// Objects which no retained version uses are kept as diff bases while there is room, newest first
+		Arrays.sort(objects, Comparator.comparingLong(File::lastModified).reversed());
+		long now = System.currentTimeMillis();
+		int evicted = 0;
+		for (File object : objects)
+		{
+			if (keep.contains(object.getName()))
+			{
+				continue;
+			}
+
+			if (now - object.lastModified() < UNLAUNCHED_GRACE || (!full && bytes + object.length() <= maxBytes))
+			{
+				bytes += object.length();
+				continue;
+			}
+
+			if (trash.discard(object))
+			{
+				++evicted;
+			}
+		}
+
+		log.debug("Retaining {} versions using {} bytes, evicted {} objects", versions.size(), bytes, evicted);
+		saveVersions(versions);
+	}
+
+	private List<Version> loadVersions()
+	{
+		File file = new File(dir, VERSIONS_NAME);
+		if (file.exists())
+		{
+			try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+			{
+				List<Version> versions = new Gson().fromJson(reader, VERSIONS_TYPE);
+				if (versions != null)
+				{
+					return versions;
+				}
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to load launched versions", ex);
+			}
+		}
+		return new ArrayList<>();
+	}
+
+	private void saveVersions(List<Version> versions)
+	{
+		try
+		{
+			dir.mkdirs();
+			File tmpFile = File.createTempFile(VERSIONS_NAME, null, dir);
+			try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(versions, VERSIONS_TYPE, writer);
+			}
+			Launcher.move(tmpFile, new File(dir, VERSIONS_NAME));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save launched versions", ex);
+		}
+	}
+
+	private void unsupported(Exception ex)
+	{
+		if (linksSupported)
+		{
+			log.warn("unable to create links in {}, artifacts will be used from the object store directly", dir, ex);
+			linksSupported = false;
+		}
+	}
+}
@@ -48,7 +48,7 @@ import net.runelite.launcher.beans.Bootstrap;
 class PackrConfig
 {
 	// Update the packr config
-	static void updateLauncherArgs(Bootstrap bootstrap, Collection<String> extraJvmArgs)
+	static void updateLauncherArgs(Bootstrap bootstrap, Collection<String> extraJvmArgs, CdsArchive cds)
 	{
 		File configFile = new File("config.json").getAbsoluteFile();
 
@@ -83,6 +83,7 @@ class PackrConfig
 		List<String> args = new ArrayList<>();
 		args.addAll(Arrays.asList(argsArr));
 		args.addAll(extraJvmArgs);
+		args.addAll(getStartupArgs(args, config.get("classPath"), cds));
 
 		config.put("vmArgs", args);
 		config.put("env", getEnv(bootstrap));
@@ -117,6 +118,38 @@ class PackrConfig
 		}
 	}
 
+	/**
+	 * Get arguments which speed up starting the launcher, for which most of the time is spent loading and
+	 * initializing classes rather than running compiled code
+	 *
+	 * @param cds archive of the launcher's classes, or null to not use one
+	 */
+	private static List<String> getStartupArgs(List<String> args, Object classPath, CdsArchive cds)
+	{
+		List<String> startup = new ArrayList<>();
+		// When the client is launched in this vm it isn't a short lived process, so leave it alone
+		if (!args.contains("-Drunelite.launcher.nojvm=true"))
+		{
+			// The heap is small and short lived, so the concurrent collectors only cost startup time and threads
+			if (args.stream().noneMatch(arg -> arg.matches("-XX:\\+Use\\w+GC")))
+			{
+				startup.add("-XX:+UseSerialGC");
+			}
+			// Skips creating the hsperfdata file, which is only used by monitoring tools
+			if (!args.contains("-XX:+UsePerfData"))
+			{
+				startup.add("-XX:-UsePerfData");
+			}
+		}
+
+		if (cds != null)
+		{
+			// The archive is only valid for this launcher's classpath, and is recreated when the launcher is updated
+			startup.addAll(cds.arguments(CdsArchive.key(Arrays.asList(LauncherProperties.getVersion(), String.valueOf(classPath)))));
+		}
+		return startup;
+	}
+
 	private static String[] getArgs(Bootstrap bootstrap)
 	{
 		return Launcher.isJava17() ? getArgsJvm17(bootstrap) : getArgsJvm11(bootstrap);
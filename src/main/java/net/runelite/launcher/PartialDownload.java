@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * State of an interrupted download, persisted next to its {@code .part} file so the download can be resumed
+ * with a range request on the next launch. The number of bytes already downloaded is the length of the
+ * {@code .part} file, unless the download is segmented, in which case the file is preallocated and each
+ * segment tracks its own progress.
+ */
+@Data
+@Slf4j
+class PartialDownload
+{
+	static final String PART_SUFFIX = ".part";
+	static final String STATE_SUFFIX = ".part.json";
+
+	/**
+	 * Expected hash of the completed file
+	 */
+	private String hash;
+	/**
+	 * Url the validators were received from. Validators are specific to the origin which sent them.
+	 */
+	private String validatorUrl;
+	private String etag;
+	private String lastModified;
+	private List<Segment> segments;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Segment
+	{
+		private long start;
+		/**
+		 * Exclusive end of the segment
+		 */
+		private long end;
+		/**
+		 * Next byte to download, updated by the segment's thread while the state is saved by another
+		 */
+		private volatile long position;
+
+		boolean isDone()
+		{
+			return position >= end;
+		}
+	}
+
+	/**
+	 * Make a range request conditional on the file not having changed since the partial download, if the
+	 * validators came from url. Another mirror would not recognise them and send the whole file, so a range from
+	 * a different mirror is requested unconditionally; the completed file is verified against its hash anyway.
+	 */
+	void addIfRange(HttpRequest.Builder request, String url)
+	{
+		if (!url.equals(validatorUrl))
+		{
+			return;
+		}
+
+		if (etag != null)
+		{
+			request.header("If-Range", etag);
+		}
+		else if (lastModified != null)
+		{
+			request.header("If-Range", lastModified);
+		}
+	}
+
+	void setValidators(String url, HttpHeaders headers)
+	{
+		validatorUrl = url;
+		etag = headers.firstValue("ETag").orElse(null);
+		lastModified = headers.firstValue("Last-Modified").orElse(null);
+	}
+
+	static File partFile(File dest)
+	{
+		return new File(dest.getParentFile(), dest.getName() + PART_SUFFIX);
+	}
+
+	static File stateFile(File dest)
+	{
+		return new File(dest.getParentFile(), dest.getName() + STATE_SUFFIX);
+	}
+
+	static PartialDownload load(File dest)
+	{
+		File stateFile = stateFile(dest);
+		if (!stateFile.exists() || !partFile(dest).exists())
+		{
+			return null;
+		}
+
+		try (Reader reader = Files.newBufferedReader(stateFile.toPath(), StandardCharsets.UTF_8))
+		{
+			return new Gson().fromJson(reader, PartialDownload.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read partial download state {}", stateFile, ex);
+			return null;
+		}
+	}
+
+	void save(File dest) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(stateFile(dest).toPath(), StandardCharsets.UTF_8))
+		{
+			new Gson().toJson(this, writer);
+		}
+	}
+
+	static void delete(File dest)
+	{
+		partFile(dest).delete();
+		stateFile(dest).delete();
+	}
+}
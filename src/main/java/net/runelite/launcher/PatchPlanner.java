@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import lombok.AllArgsConstructor;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * Plans the cheapest way to update an artifact from the versions available locally. The diffs of an artifact
+ * form a graph of hashes, which is searched for the cheapest path to the artifact hash.
+ */
+class PatchPlanner
+{
+	/**
+	 * Estimates the cost of the ways of getting an artifact
+	 */
+	interface CostModel
+	{
+		double full(Artifact artifact);
+
+		double diff(Artifact artifact, Diff diff);
+	}
+
+	/**
+	 * Minimizes the number of bytes downloaded
+	 */
+	static final CostModel BYTES = new CostModel()
+	{
+		@Override
+		public double full(Artifact artifact)
+		{
+			return artifact.getSize();
+		}
+
+		@Override
+		public double diff(Artifact artifact, Diff diff)
+		{
+			return diff.getSize();
+		}
+	};
+
+	@AllArgsConstructor
+	private static class Node
+	{
+		private final String hash;
+		private final double cost;
+	}
+
+	static List<Diff> plan(Artifact artifact, Predicate<Diff> hasBase)
+	{
+		return plan(artifact, hasBase, BYTES);
+	}
+
+	/**
+	 * @param hasBase tests if the base of a diff is available locally
+	 * @return the diffs to apply in order, or null if downloading the full artifact is cheaper
+	 */
+	static List<Diff> plan(Artifact artifact, Predicate<Diff> hasBase, CostModel model)
+	{
+		if (artifact.getDiffs() == null)
+		{
+			return null;
+		}
+
+		Map<String, List<Diff>> edges = new HashMap<>();
+		Map<String, Double> costs = new HashMap<>();
+		Map<String, Diff> previous = new HashMap<>();
+		PriorityQueue<Node> queue = new PriorityQueue<>((a, b) -> Double.compare(a.cost, b.cost));
+		for (Diff diff : artifact.getDiffs())
+		{
+			edges.computeIfAbsent(diff.getFromHash(), k -> new ArrayList<>()).add(diff);
+			if (!costs.containsKey(diff.getFromHash()) && hasBase.test(diff))
+			{
+				costs.put(diff.getFromHash(), 0.0);
+				queue.add(new Node(diff.getFromHash(), 0.0));
+			}
+		}
+
+		while (!queue.isEmpty())
+		{
+			Node node = queue.poll();
+			if (node.cost > costs.get(node.hash))
+			{
+				// already reached more cheaply
+				continue;
+			}
+
+			if (node.hash.equals(artifact.getHash()))
+			{
+				break;
+			}
+
+			for (Diff diff : edges.getOrDefault(node.hash, Collections.emptyList()))
+			{
+				String to = toHash(artifact, diff);
+				double cost = node.cost + model.diff(artifact, diff);
+				if (cost < costs.getOrDefault(to, Double.MAX_VALUE))
+				{
+					costs.put(to, cost);
+					previous.put(to, diff);
+					queue.add(new Node(to, cost));
+				}
+			}
+		}
+
+		Double cost = costs.get(artifact.getHash());
+		if (cost == null || cost >= model.full(artifact) || !previous.containsKey(artifact.getHash()))
+		{
+			return null;
+		}
+
+		List<Diff> path = new ArrayList<>();
+		for (Diff diff = previous.get(artifact.getHash()); diff != null; diff = previous.get(diff.getFromHash()))
+		{
+			path.add(diff);
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	static String toHash(Artifact artifact, Diff diff)
+	{
+		return diff.getToHash() != null ? diff.getToHash() : artifact.getHash();
+	}
+
+	static long size(List<Diff> path)
+	{
+		return path.stream().mapToLong(Diff::getSize).sum();
+	}
+
+	static double cost(Artifact artifact, List<Diff> path, CostModel model)
+	{
+		return path != null ? path.stream().mapToDouble(diff -> model.diff(artifact, diff)).sum() : model.full(artifact);
+	}
+}
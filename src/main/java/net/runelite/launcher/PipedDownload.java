@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntConsumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a gzipped download on a separate thread into a bounded pipe, hashing it as it arrives and inflating
+ * it. This lets the consumer process the stream while it is still downloading, without ever holding more than
+ * the pipe size in memory, and keeps the connection busy while the consumer is doing cpu work.
+ */
+class PipedDownload implements Closeable
+{
+	private final InputStream in;
+	private final FutureTask<HashCode> task;
+	private volatile boolean closed;
+
+	PipedDownload(String name, InputStream source, int pipeSize, IntConsumer progress, StageTimings timings) throws IOException
+	{
+		final BytePipe bytePipe = new BytePipe(pipeSize);
+		this.in = bytePipe.getInputStream();
+		final OutputStream out = bytePipe.getOutputStream();
+
+		task = new FutureTask<>(() ->
+		{
+			StageTimings.TimedInputStream fetch = new StageTimings.TimedInputStream(source);
+			StageTimings.TimedOutputStream pipe = new StageTimings.TimedOutputStream(out);
+			HashingInputStream hin = new HashingInputStream(Hashing.sha256(), fetch);
+			CountingInputStream downloaded = new CountingInputStream(hin);
+			long start = System.nanoTime();
+			try (InputStream inflater = new GZIPInputStream(downloaded, 64 * 1024))
+			{
+				int i;
+				byte[] buffer = new byte[64 * 1024];
+				while ((i = inflater.read(buffer)) != -1)
+				{
+					pipe.write(buffer, 0, i);
+					// Hand over what has been inflated so far, rather than hold it while waiting on the network
+					pipe.flush();
+					if (!closed)
+					{
+						progress.accept((int) downloaded.getCount());
+					}
+				}
+
+				// The hash covers everything downloaded, including anything after the end of the compressed data
+				ByteStreams.exhaust(downloaded);
+			}
+			finally
+			{
+				// Closing the write end is what signals the end of the stream to the reader
+				out.close();
+				source.close();
+				timings.add(StageTimings.Stage.FETCH, fetch.getNanos());
+				timings.add(StageTimings.Stage.INFLATE, System.nanoTime() - start - fetch.getNanos() - pipe.getNanos());
+			}
+			return hin.hash();
+		});
+
+		Thread thread = new Thread(task, "pipe-" + name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	InputStream getInputStream()
+	{
+		return in;
+	}
+
+	/**
+	 * Consume the remainder of the stream and wait for the download to complete
+	 *
+	 * @return the hash of the downloaded bytes
+	 */
+	HashCode finish() throws IOException
+	{
+		ByteStreams.exhaust(in);
+		try
+		{
+			return task.get();
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		// Once the read end is closed the download thread fails on its next write
+		closed = true;
+		in.close();
+	}
+}
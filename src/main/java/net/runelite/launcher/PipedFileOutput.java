@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Writes a stream to a file on a separate thread through a bounded pipe, hashing it as it is written. This
+ * moves hashing and disk writes off of the thread producing the stream, eg. while it is patching.
+ */
+class PipedFileOutput implements Closeable
+{
+	private final OutputStream out;
+	private final FutureTask<String> task;
+
+	PipedFileOutput(String name, File file, int pipeSize, StageTimings timings) throws IOException
+	{
+		final BytePipe pipe = new BytePipe(pipeSize);
+		final InputStream in = pipe.getInputStream();
+		this.out = pipe.getOutputStream();
+
+		task = new FutureTask<>(() ->
+		{
+			MessageDigest digest = HashEngine.newDigest();
+			StageTimings.TimedInputStream tin = new StageTimings.TimedInputStream(in);
+			byte[] buffer = HashEngine.acquireArray();
+			long start = System.nanoTime();
+			try (InputStream pin = tin;
+				OutputStream fout = Files.newOutputStream(file.toPath()))
+			{
+				int i;
+				while ((i = pin.read(buffer)) != -1)
+				{
+					digest.update(buffer, 0, i);
+					fout.write(buffer, 0, i);
+				}
+			}
+			finally
+			{
+				HashEngine.releaseArray(buffer);
+				timings.add(StageTimings.Stage.WRITE, System.nanoTime() - start - tin.getNanos());
+			}
+			return HashEngine.toString(digest);
+		});
+
+		Thread thread = new Thread(task, "write-" + name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	OutputStream getOutputStream()
+	{
+		return out;
+	}
+
+	/**
+	 * End the stream and wait for it to be written
+	 *
+	 * @return the hash of the written bytes
+	 */
+	String finish() throws IOException
+	{
+		out.close();
+		try
+		{
+			return task.get();
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		out.close();
+		try
+		{
+			// Don't leave the writer running on a file which the caller is about to delete
+			task.get();
+		}
+		catch (ExecutionException ex)
+		{
+			// already reported by finish, or the stream is being abandoned
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Downloads a large file as several byte ranges in parallel, each over its own connection, written into a
+ * preallocated {@code .part} file. A single stream rarely reaches line rate on high latency links. The
+ * segments are resumable individually, and the whole file is hashed once it is complete.
+ */
+@Slf4j
+class SegmentedDownload
+{
+	static final int MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+	// A stalled segment is resumed on a new connection this many times before the download fails
+	private static final int MAX_ATTEMPTS = 3;
+
+	/**
+	 * Thrown when a ranged request is answered with the whole file, either because the server doesn't support
+	 * ranges or because the file changed since the download started
+	 */
+	private static class RangeNotSatisfiedException extends IOException
+	{
+		RangeNotSatisfiedException(String message)
+		{
+			super(message);
+		}
+	}
+
+	private final URI uri;
+	private final String hash;
+	private final long size;
+	private final File dest;
+	private final File partFile;
+	private final IntConsumer progress;
+	private final StageTimings timings;
+	private final AtomicLong downloaded = new AtomicLong();
+	private PartialDownload state;
+
+	SegmentedDownload(String path, String hash, long size, File dest, IntConsumer progress, StageTimings timings)
+	{
+		this.uri = URI.create(path);
+		this.hash = hash;
+		this.size = size;
+		this.dest = dest;
+		this.partFile = PartialDownload.partFile(dest);
+		this.progress = progress;
+		this.timings = timings;
+	}
+
+	/**
+	 * Download the file into dest
+	 *
+	 * @param segments maximum number of segments to split the file into
+	 * @return false if the server doesn't support range requests, in which case nothing was downloaded
+	 */
+	boolean download(int segments) throws IOException, VerificationException
+	{
+		state = PartialDownload.load(dest);
+		if (state == null || !hash.equals(state.getHash()) || state.getSegments() == null || partFile.length() != size)
+		{
+			PartialDownload.delete(dest);
+			state = new PartialDownload();
+			state.setHash(hash);
+			state.setSegments(split(size, segments));
+			try (RandomAccessFile raf = new RandomAccessFile(partFile, "rw"))
+			{
+				raf.setLength(size);
+			}
+		}
+		else
+		{
+			log.debug("Resuming segmented download of {}", uri);
+		}
+
+		for (PartialDownload.Segment segment : state.getSegments())
+		{
+			downloaded.addAndGet(segment.getPosition() - segment.getStart());
+		}
+		reportProgress();
+
+		List<PartialDownload.Segment> remaining = new ArrayList<>();
+		for (PartialDownload.Segment segment : state.getSegments())
+		{
+			if (!segment.isDone())
+			{
+				remaining.add(segment);
+			}
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, remaining.size()), new ThreadFactoryBuilder()
+			.setNameFormat("segment-%d")
+			.setDaemon(true)
+			.setPriority(Thread.currentThread().getPriority())
+			.build());
+		try (FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.WRITE))
+		{
+			List<Future<?>> futures = new ArrayList<>(remaining.size());
+			for (PartialDownload.Segment segment : remaining)
+			{
+				futures.add(executor.submit(() ->
+				{
+					fetch(segment, channel);
+					return null;
+				}));
+			}
+
+			for (Future<?> future : futures)
+			{
+				while (true)
+				{
+					try
+					{
+						future.get(1, TimeUnit.SECONDS);
+						break;
+					}
+					catch (TimeoutException ex)
+					{
+						// Checkpoint the segments so that an interrupted launch can resume them
+						state.save(dest);
+					}
+				}
+			}
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof RangeNotSatisfiedException)
+			{
+				log.debug("Unable to download {} in segments: {}", uri, ex.getCause().getMessage());
+				executor.shutdownNow();
+				PartialDownload.delete(dest);
+				return false;
+			}
+
+			Throwables.throwIfInstanceOf(ex.getCause(), IOException.class);
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while downloading " + uri);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			if (partFile.exists())
+			{
+				state.save(dest);
+			}
+		}
+
+		String fileHash = HashEngine.hash(partFile);
+		if (!hash.equals(fileHash))
+		{
+			PartialDownload.delete(dest);
+			throw new VerificationException("Unable to verify resource " + uri + " - expected " + hash + " got " + fileHash);
+		}
+
+		Launcher.move(partFile, dest);
+		PartialDownload.delete(dest);
+		return true;
+	}
+
+	private void fetch(PartialDownload.Segment segment, FileChannel channel) throws IOException
+	{
+		for (int attempt = 1; ; ++attempt)
+		{
+			try
+			{
+				fetchRange(segment, channel);
+				return;
+			}
+			catch (StallDetector.StalledException ex)
+			{
+				if (attempt >= MAX_ATTEMPTS)
+				{
+					throw ex;
+				}
+
+				log.debug("Resuming stalled segment of {} from byte {}", uri, segment.getPosition());
+				HttpTransport.reset(uri);
+			}
+		}
+	}
+
+	private void fetchRange(PartialDownload.Segment segment, FileChannel channel) throws IOException
+	{
+		HttpRequest.Builder request = HttpTransport.request(uri)
+			// HTTP/2 would multiplex every segment over a single connection, defeating the purpose
+			.version(HttpClient.Version.HTTP_1_1)
+			.header("Range", "bytes=" + segment.getPosition() + "-" + (segment.getEnd() - 1));
+		state.addIfRange(request, uri.toString());
+
+		HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = HttpTransport.send(request.build(), HttpResponse.BodyHandlers.ofPublisher());
+		String contentRange = response.headers().firstValue("Content-Range").orElse(null);
+		if (response.statusCode() != HttpURLConnection.HTTP_PARTIAL || contentRange == null
+			|| !contentRange.startsWith("bytes " + segment.getPosition() + "-"))
+		{
+			HashingFileSink.discard(response.body());
+			if (HttpTransport.isSuccess(response))
+			{
+				throw new RangeNotSatisfiedException("got HTTP " + response.statusCode() + " for range starting at " + segment.getPosition());
+			}
+			throw new IOException("Unable to download " + uri + " - HTTP " + response.statusCode());
+		}
+
+		synchronized (this)
+		{
+			// The first response from this mirror replaces any validators from the one before it
+			if (!uri.toString().equals(state.getValidatorUrl()))
+			{
+				state.setValidators(uri.toString(), response.headers());
+			}
+		}
+
+		final long start = System.nanoTime();
+		HashingFileSink sink = new HashingFileSink(uri + " bytes " + segment.getPosition() + "-" + segment.getEnd(), channel, segment.getPosition(), null, position ->
+		{
+			long delta = position - segment.getPosition();
+			segment.setPosition(position);
+			downloaded.addAndGet(delta);
+			reportProgress();
+		}, HttpTransport.timeout(uri));
+		try
+		{
+			response.body().subscribe(sink);
+			sink.await();
+		}
+		finally
+		{
+			timings.add(StageTimings.Stage.WRITE, sink.getWriteNanos());
+			timings.add(StageTimings.Stage.FETCH, System.nanoTime() - start - sink.getWriteNanos());
+		}
+
+		if (!segment.isDone())
+		{
+			throw new IOException("Unexpected end of stream downloading " + uri + " at byte " + segment.getPosition());
+		}
+	}
+
+	private void reportProgress()
+	{
+		// The progress consumer isn't thread safe
+		synchronized (progress)
+		{
+			progress.accept((int) downloaded.get());
+		}
+	}
+
+	static List<PartialDownload.Segment> split(long size, int segments)
+	{
+		int count = (int) Math.max(1, Math.min(segments, size / MIN_SEGMENT_SIZE));
+		List<PartialDownload.Segment> result = new ArrayList<>(count);
+		long segmentSize = (size + count - 1) / count;
+		for (long start = 0; start < size; start += segmentSize)
+		{
+			long end = Math.min(size, start + segmentSize);
+			result.add(new PartialDownload.Segment(start, end, start));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Time spent in each stage of an update, summed over all of the threads working on it. Time a stage spends
+ * blocked on the stages before or after it is excluded, so the stage with the most time is the bottleneck.
+ */
+class StageTimings
+{
+	enum Stage
+	{
+		FETCH,
+		INFLATE,
+		PATCH,
+		WRITE,
+		COMMIT
+	}
+
+	private final Map<Stage, LongAdder> nanos = new EnumMap<>(Stage.class);
+
+	StageTimings()
+	{
+		for (Stage stage : Stage.values())
+		{
+			nanos.put(stage, new LongAdder());
+		}
+	}
+
+	void add(Stage stage, long nanos)
+	{
+		this.nanos.get(stage).add(Math.max(nanos, 0));
+	}
+
+	@Override
+	public String toString()
+	{
+		return nanos.entrySet().stream()
+			.map(e -> e.getKey().name().toLowerCase(Locale.ROOT) + " " + TimeUnit.NANOSECONDS.toMillis(e.getValue().sum()) + "ms")
+			.collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * Measures the time spent reading from a stream, eg. waiting on the stage before
+	 */
+	static class TimedInputStream extends FilterInputStream
+	{
+		@Getter
+		private long nanos;
+
+		TimedInputStream(InputStream in)
+		{
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			long start = System.nanoTime();
+			try
+			{
+				return in.read();
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			long start = System.nanoTime();
+			try
+			{
+				return in.read(b, off, len);
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+	}
+
+	/**
+	 * Measures the time spent writing to a stream, eg. waiting on the stage after
+	 */
+	static class TimedOutputStream extends FilterOutputStream
+	{
+		@Getter
+		private long nanos;
+
+		TimedOutputStream(OutputStream out)
+		{
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			long start = System.nanoTime();
+			try
+			{
+				out.write(b);
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			long start = System.nanoTime();
+			try
+			{
+				out.write(b, off, len);
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			long start = System.nanoTime();
+			try
+			{
+				out.flush();
+			}
+			finally
+			{
+				nanos += System.nanoTime() - start;
+			}
+		}
+	}
+}
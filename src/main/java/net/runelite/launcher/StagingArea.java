@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Bootstrap;
+
+/**
+ * Directory next to the repository which updates are downloaded into while the client is running. An update
+ * is only complete once its bootstrap has been committed, after which it is promoted into the repository on
+ * the next launch.
+ */
+@Slf4j
+class StagingArea
+{
+	private static final String BOOTSTRAP_NAME = "bootstrap.json";
+
+	@Getter
+	private final File dir;
+	@Getter
+	private final HashIndex index;
+	private final File bootstrapFile;
+
+	StagingArea(File dir)
+	{
+		dir.mkdirs();
+		this.dir = dir;
+		this.index = new HashIndex(dir);
+		this.bootstrapFile = new File(dir, BOOTSTRAP_NAME);
+	}
+
+	/**
+	 * Mark the update as complete. All of the artifacts of the bootstrap which aren't already in the
+	 * repository must have been downloaded and verified.
+	 */
+	void commit(Bootstrap bootstrap) throws IOException
+	{
+		index.save();
+		File tmpFile = File.createTempFile(BOOTSTRAP_NAME, null, dir);
+		Files.write(tmpFile.toPath(), new Gson().toJson(bootstrap).getBytes(StandardCharsets.UTF_8));
+		Launcher.move(tmpFile, bootstrapFile);
+		log.info("Staged update for next launch");
+	}
+
+	/**
+	 * Move a committed update into the repository
+	 *
+	 * @return the bootstrap of the update, or null if there was no committed update
+	 */
+	Bootstrap promote(HashIndex repository)
+	{
+		if (!bootstrapFile.exists())
+		{
+			return null;
+		}
+
+		Bootstrap bootstrap;
+		try (Reader reader = Files.newBufferedReader(bootstrapFile.toPath(), StandardCharsets.UTF_8))
+		{
+			bootstrap = new Gson().fromJson(reader, Bootstrap.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to read staged bootstrap", ex);
+			clear();
+			return null;
+		}
+
+		try
+		{
+			for (Artifact artifact : bootstrap.getArtifacts())
+			{
+				File staged = new File(dir, artifact.getName());
+				if (!staged.exists())
+				{
+					continue;
+				}
+
+				File dest = new File(repository.getDir(), artifact.getName());
+				Launcher.move(staged, dest);
+				// The staged files were verified as they were downloaded
+				repository.record(dest, artifact.getHash());
+				log.debug("Promoted staged artifact {}", artifact.getName());
+			}
+		}
+		catch (IOException ex)
+		{
+			// eg. an artifact is in use by another running client; try again next launch
+			log.warn("unable to promote staged update", ex);
+			return null;
+		}
+		finally
+		{
+			repository.save();
+		}
+
+		clear();
+		return bootstrap;
+	}
+
+	void clear()
+	{
+		try
+		{
+			MoreFiles.deleteRecursively(dir.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to clear staging area", ex);
+		}
+		dir.mkdirs();
+	}
+}
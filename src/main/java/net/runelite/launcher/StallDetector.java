@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the throughput of a transfer over a rolling window and aborts it if it stalls, either because no
+ * data has arrived within the idle timeout, or because the throughput over the whole window is below
+ * {@link #FLOOR}. The socket timeouts of the http client only cover connecting and the response headers, so
+ * without this a body which stops arriving hangs the launcher forever.
+ * <p>
+ * Only time spent waiting for data counts. While the consumer is busy with what it has already received, eg.
+ * patching or writing it out, the transfer is paused by its own backpressure rather than by the network.
+ */
+@Slf4j
+class StallDetector implements AutoCloseable
+{
+	private static final int WINDOW_SECONDS = 10;
+	// Bytes per second, averaged over the window
+	private static final long FLOOR = 1024;
+
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+		.setNameFormat("stall-watchdog")
+		.setDaemon(true)
+		.build());
+
+	static class StalledException extends IOException
+	{
+		StalledException(String message)
+		{
+			super(message);
+		}
+	}
+
+	private final String name;
+	private final long idleTimeout;
+	private final Consumer<StalledException> abort;
+	private final long[] window = new long[WINDOW_SECONDS];
+	private final long start = System.nanoTime();
+	private final ScheduledFuture<?> task;
+	private long current;
+	private long total;
+	private int tick;
+	private long lastProgress = start;
+	// Whether the consumer is waiting for data, and whether it has been at any point since the last tick
+	private boolean waiting = true;
+	private boolean waited = true;
+	private volatile boolean stalled;
+
+	/**
+	 * @param idleTimeout longest time to wait for data before aborting
+	 * @param abort       called from the watchdog thread to abort the transfer, which must make the thread
+	 *                    waiting on it fail with the given exception
+	 */
+	StallDetector(String name, Duration idleTimeout, Consumer<StalledException> abort)
+	{
+		this.name = name;
+		this.idleTimeout = idleTimeout.toNanos();
+		this.abort = abort;
+		task = WATCHDOG.scheduleAtFixedRate(this::check, 1, 1, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Record that the transfer has reached total bytes
+	 */
+	synchronized void transferred(long total)
+	{
+		if (total > this.total)
+		{
+			current += total - this.total;
+			this.total = total;
+			lastProgress = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Record that the consumer is waiting for data, so the transfer is expected to make progress
+	 */
+	synchronized void waiting()
+	{
+		if (!waiting)
+		{
+			waiting = true;
+			// The idle time starts now, not when the consumer last received something
+			lastProgress = System.nanoTime();
+		}
+		waited = true;
+	}
+
+	/**
+	 * Record that the consumer is busy with what it has received, so the transfer isn't expected to make
+	 * progress until it waits again
+	 */
+	synchronized void busy()
+	{
+		waiting = false;
+	}
+
+	boolean isStalled()
+	{
+		return stalled;
+	}
+
+	private StalledException exception()
+	{
+		return new StalledException(name + " stalled");
+	}
+
+	private void check()
+	{
+		long now = System.nanoTime();
+		long sum;
+		synchronized (this)
+		{
+			if (!waited)
+			{
+				// The consumer didn't wait for anything during this second, so it says nothing about the transfer
+				return;
+			}
+			waited = waiting;
+
+			window[tick++ % WINDOW_SECONDS] = current;
+			current = 0;
+
+			sum = 0;
+			for (long bytes : window)
+			{
+				sum += bytes;
+			}
+
+			boolean idle = waiting && now - lastProgress > idleTimeout;
+			boolean slow = tick >= WINDOW_SECONDS && sum < FLOOR * WINDOW_SECONDS;
+			if (!idle && !slow)
+			{
+				return;
+			}
+		}
+
+		log.warn("{} stalled at {} bytes after {}ms: {} bytes in the last {}s", name, total,
+			TimeUnit.NANOSECONDS.toMillis(now - start), sum, Math.min(tick, WINDOW_SECONDS));
+		stalled = true;
+		task.cancel(false);
+		abort.accept(exception());
+	}
+
+	@Override
+	public void close()
+	{
+		task.cancel(false);
+	}
+
+	/**
+	 * Watch a blocking stream. Only time spent inside a read counts towards a stall, so a consumer which stops
+	 * reading while it processes the data doesn't abort the transfer. On a stall the stream is closed and the
+	 * reading thread is interrupted, since closing the http client's body stream doesn't wake a blocked read.
+	 * The read then fails with {@link StalledException}.
+	 */
+	static InputStream watch(String name, Duration idleTimeout, InputStream in)
+	{
+		return new FilterInputStream(in)
+		{
+			private volatile Thread reader;
+			private long count;
+			private final StallDetector detector = new StallDetector(name, idleTimeout, cause ->
+			{
+				try
+				{
+					in.close();
+				}
+				catch (IOException ex)
+				{
+					log.debug("error closing stalled stream", ex);
+				}
+
+				Thread t = reader;
+				if (t != null)
+				{
+					t.interrupt();
+				}
+			});
+
+			{
+				// Nothing is waiting on the stream until the first read
+				detector.busy();
+			}
+
+			@Override
+			public int read() throws IOException
+			{
+				byte[] b = new byte[1];
+				return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException
+			{
+				reader = Thread.currentThread();
+				detector.waiting();
+				try
+				{
+					int n = super.read(b, off, len);
+					if (n > 0)
+					{
+						count += n;
+						detector.transferred(count);
+					}
+					else if (n == -1 && detector.isStalled())
+					{
+						// The stream was closed rather than completed
+						throw new StalledException(name + " stalled");
+					}
+					return n;
+				}
+				catch (StalledException ex)
+				{
+					throw ex;
+				}
+				catch (IOException ex)
+				{
+					throw stalled(ex);
+				}
+				finally
+				{
+					detector.busy();
+					reader = null;
+					if (detector.isStalled())
+					{
+						// Don't leave the interrupt set for whatever the thread runs next
+						Thread.interrupted();
+					}
+				}
+			}
+
+			@Override
+			public void close() throws IOException
+			{
+				detector.close();
+				super.close();
+			}
+
+			private IOException stalled(IOException ex)
+			{
+				if (!detector.isStalled())
+				{
+					return ex;
+				}
+
+				StalledException stalled = new StalledException(name + " stalled");
+				stalled.initCause(ex);
+				return stalled;
+			}
+		};
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * Network and patching throughput measured on earlier runs, used to estimate how long each way of
+ * updating an artifact takes. Patches are applied while they download, so a diff takes as long as the
+ * slower of downloading it and patching the artifact.
+ */
+@Slf4j
+class ThroughputStats implements PatchPlanner.CostModel
+{
+	// Until something is measured, assume a slow link so diffs are preferred as before
+	private static final double DEFAULT_NETWORK_RATE = 1024 * 1024;
+	private static final double DEFAULT_PATCH_RATE = 32 * 1024 * 1024;
+	// Transfers smaller than this are dominated by latency rather than throughput
+	private static final long MIN_SAMPLE_BYTES = 256 * 1024;
+	// Weight of a new measurement in the moving average
+	private static final double ALPHA = 0.3;
+
+	@Data
+	private static class Rates
+	{
+		private double network = DEFAULT_NETWORK_RATE;
+		private double patch = DEFAULT_PATCH_RATE;
+	}
+
+	private final File file;
+	private Rates rates = new Rates();
+	private boolean dirty;
+
+	ThroughputStats(File file)
+	{
+		this.file = file;
+		load();
+	}
+
+	private void load()
+	{
+		if (!file.exists())
+		{
+			return;
+		}
+
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			Rates loaded = new Gson().fromJson(reader, Rates.class);
+			if (loaded != null && loaded.getNetwork() > 0 && loaded.getPatch() > 0)
+			{
+				rates = loaded;
+			}
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load throughput stats", ex);
+		}
+	}
+
+	synchronized double getNetworkRate()
+	{
+		return rates.getNetwork();
+	}
+
+	synchronized double getPatchRate()
+	{
+		return rates.getPatch();
+	}
+
+	/**
+	 * @param bytes number of bytes downloaded
+	 */
+	synchronized void recordNetwork(long bytes, long nanos)
+	{
+		if (bytes >= MIN_SAMPLE_BYTES && nanos > 0)
+		{
+			rates.setNetwork(average(rates.getNetwork(), bytes / (nanos / 1e9)));
+			dirty = true;
+		}
+	}
+
+	/**
+	 * @param bytes size of the patched artifact
+	 * @param diffBytes size of the diff, which was downloaded while patching
+	 */
+	synchronized void recordPatch(long bytes, long diffBytes, long nanos)
+	{
+		// A patch which took about as long as downloading the diff was limited by the network, and says little about patching
+		double networkNanos = diffBytes / rates.getNetwork() * 1e9;
+		if (bytes >= MIN_SAMPLE_BYTES && nanos > 2 * networkNanos)
+		{
+			rates.setPatch(average(rates.getPatch(), bytes / (nanos / 1e9)));
+			dirty = true;
+		}
+	}
+
+	private static double average(double average, double sample)
+	{
+		return average + ALPHA * (sample - average);
+	}
+
+	/**
+	 * @return estimated seconds to download the full artifact
+	 */
+	@Override
+	public synchronized double full(Artifact artifact)
+	{
+		return artifact.getSize() / rates.getNetwork();
+	}
+
+	/**
+	 * @return estimated seconds to download and apply the diff
+	 */
+	@Override
+	public synchronized double diff(Artifact artifact, Diff diff)
+	{
+		return Math.max(diff.getSize() / rates.getNetwork(), artifact.getSize() / rates.getPatch());
+	}
+
+	synchronized void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		try
+		{
+			File tmpFile = File.createTempFile(file.getName(), null, file.getParentFile());
+			try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(rates, writer);
+			}
+			Launcher.move(tmpFile, file);
+			dirty = false;
+			log.debug("Saved throughput stats: network {} B/s, patch {} B/s", (long) rates.getNetwork(), (long) rates.getPatch());
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save throughput stats", ex);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Directory which files are moved into to be deleted later. Moving a file within the same filesystem is
+ * only a rename, so discarding is cheap enough for the startup path and the actual deletion happens in
+ * the background.
+ */
+@Slf4j
+class Trash
+{
+	private final File dir;
+
+	Trash(File dir)
+	{
+		this.dir = dir;
+	}
+
+	/**
+	 * Move a file into the trash, or delete it directly if it can't be moved
+	 *
+	 * @return true if the file was removed
+	 */
+	boolean discard(File file)
+	{
+		dir.mkdirs();
+		File dest = new File(dir, file.getName() + "." + System.nanoTime());
+		try
+		{
+			Files.move(file.toPath(), dest.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to move {} to the trash", file, ex);
+			return file.delete();
+		}
+	}
+
+	/**
+	 * Delete the contents of the trash in the background
+	 */
+	void reap()
+	{
+		Thread reaper = new Thread(() ->
+		{
+			File[] files = dir.listFiles();
+			if (files == null)
+			{
+				return;
+			}
+
+			for (File file : files)
+			{
+				if (!file.delete())
+				{
+					// eg. still open by a client on Windows, try again next launch
+					log.debug("unable to delete {}", file);
+				}
+			}
+			log.debug("Emptied trash of {} files", files.length);
+		}, "reaper");
+		reaper.setPriority(Thread.MIN_PRIORITY);
+		reaper.start();
+	}
+}
@@ -31,6 +31,8 @@ public class Artifact
 {
 	private String name;
 	private String path;
+	// alternate urls for the same file, which may be faster depending on where the user is
+	private String[] mirrors;
 	private String hash;
 	private int size;
 	private Diff[] diffs;
@@ -33,6 +33,10 @@ public class Diff
 	private String from;
 	private String fromHash;
 	private String hash;
+	// hash of the result of applying the diff, if it isn't the artifact. This allows chaining diffs between older versions.
+	private String toHash;
 	private String path;
+	// alternate urls for the same file, which may be faster depending on where the user is
+	private String[] mirrors;
 	private int size;
 }
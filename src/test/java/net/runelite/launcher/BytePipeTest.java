@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BytePipeTest
+{
+	@Test(timeout = 10_000)
+	public void testTransfer() throws Exception
+	{
+		byte[] data = new byte[1024 * 1024 + 17];
+		new Random(42).nextBytes(data);
+
+		BytePipe pipe = new BytePipe(64 * 1024);
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+		{
+			try (OutputStream out = pipe.getOutputStream())
+			{
+				// odd sized writes, so chunks are filled across several writes
+				for (int off = 0; off < data.length; off += 1000)
+				{
+					out.write(data, off, Math.min(1000, data.length - off));
+				}
+			}
+			catch (IOException ex)
+			{
+				throw new RuntimeException(ex);
+			}
+		});
+
+		byte[] read;
+		try (InputStream in = pipe.getInputStream())
+		{
+			read = ByteStreams.toByteArray(in);
+		}
+		writer.get();
+		Assert.assertArrayEquals(data, read);
+	}
+
+	@Test(timeout = 10_000)
+	public void testFlush() throws Exception
+	{
+		BytePipe pipe = new BytePipe(64 * 1024);
+		OutputStream out = pipe.getOutputStream();
+		out.write(new byte[]{1, 2, 3});
+		out.flush();
+
+		// the flushed bytes are readable without the writer closing or filling a chunk
+		byte[] buffer = new byte[16];
+		Assert.assertEquals(3, pipe.getInputStream().read(buffer));
+	}
+
+	@Test(timeout = 10_000, expected = IOException.class)
+	public void testReaderClosed() throws IOException
+	{
+		BytePipe pipe = new BytePipe(16 * 1024);
+		pipe.getInputStream().close();
+
+		// more than the pipe holds, which would block forever if the writer wasn't failed
+		OutputStream out = pipe.getOutputStream();
+		out.write(new byte[1024 * 1024]);
+	}
+}
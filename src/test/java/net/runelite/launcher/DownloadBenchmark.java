@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+
+/**
+ * Compares downloading through an InputStream and heap array, as the launcher used to, against
+ * {@link HashingFileSink}, from a local http server. This is not run as part of the test suite, run it
+ * manually with an optional file size in MiB. Allocation is counted across all threads, since the sink
+ * runs on the http client's threads.
+ */
+public class DownloadBenchmark
+{
+	private static final int ROUNDS = 10;
+
+	interface Round
+	{
+		String run() throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		int mib = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+		byte[] body = new byte[mib * 1024 * 1024];
+		new Random(0).nextBytes(body);
+
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange ->
+		{
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody())
+			{
+				out.write(body);
+			}
+		});
+		server.start();
+
+		File dest = File.createTempFile("downloadbench", ".bin");
+		dest.deleteOnExit();
+		try
+		{
+			HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.build();
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+			String expected = run("stream", body.length, () -> DownloadBenchmark.stream(client, uri, dest));
+			String actual = run("channel", body.length, () -> DownloadBenchmark.channel(client, uri, dest, body.length));
+			if (!expected.equals(actual))
+			{
+				throw new AssertionError("hash mismatch: " + expected + " != " + actual);
+			}
+		}
+		finally
+		{
+			server.stop(0);
+		}
+	}
+
+	private static String stream(HttpClient client, URI uri, File dest) throws IOException, InterruptedException
+	{
+		HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofInputStream());
+		MessageDigest digest = HashEngine.newDigest();
+		byte[] buffer = HashEngine.acquireArray();
+		try (InputStream in = response.body();
+			OutputStream out = new FileOutputStream(dest))
+		{
+			int i;
+			while ((i = in.read(buffer)) != -1)
+			{
+				out.write(buffer, 0, i);
+				digest.update(buffer, 0, i);
+			}
+		}
+		finally
+		{
+			HashEngine.releaseArray(buffer);
+		}
+		return HashEngine.toString(digest);
+	}
+
+	private static String channel(HttpClient client, URI uri, File dest, long size) throws IOException, InterruptedException
+	{
+		HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofPublisher());
+		try (FileChannel channel = FileChannel.open(dest.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			channel.write(ByteBuffer.allocate(1), size - 1);
+			HashingFileSink sink = new HashingFileSink(uri.toString(), channel, 0, HashEngine.newDigest(), i ->
+			{
+			}, HttpTransport.RESPONSE_TIMEOUT);
+			response.body().subscribe(sink);
+			return sink.await();
+		}
+	}
+
+	private static String run(String name, long size, Round round) throws Exception
+	{
+		// warm up
+		String hash = round.run();
+
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; ++i)
+		{
+			round.run();
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = allocatedBytes() - allocated;
+
+		double mib = size * (double) ROUNDS / (1024 * 1024);
+		System.out.printf("%-8s %8.1f MiB/s %12d bytes allocated/download%n", name, mib / (elapsed / 1e9), allocated / ROUNDS);
+		return hash;
+	}
+
+	private static long allocatedBytes()
+	{
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+		{
+			total += Math.max(0, allocated);
+		}
+		return total;
+	}
+}
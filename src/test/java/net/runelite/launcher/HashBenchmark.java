@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Compares {@link HashEngine} against Guava's ByteSource hashing. This is not run as part of the test suite,
+ * run it manually with an optional file size in MiB.
+ */
+public class HashBenchmark
+{
+	private static final int ROUNDS = 10;
+
+	interface FileHash
+	{
+		String hash(File file) throws IOException;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		int mib = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+		File file = File.createTempFile("hashbench", ".bin");
+		file.deleteOnExit();
+
+		byte[] chunk = new byte[1024 * 1024];
+		new Random(0).nextBytes(chunk);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			for (int i = 0; i < mib; ++i)
+			{
+				raf.write(chunk);
+			}
+		}
+
+		String expected = run("guava", file, f -> com.google.common.io.Files.asByteSource(f).hash(Hashing.sha256()).toString());
+		String actual = run("engine", file, HashEngine::hash);
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError("hash mismatch: " + expected + " != " + actual);
+		}
+	}
+
+	private static String run(String name, File file, FileHash fileHash) throws IOException
+	{
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+
+		// warm up
+		String hash = fileHash.hash(file);
+
+		long allocated = threads.getThreadAllocatedBytes(tid);
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; ++i)
+		{
+			fileHash.hash(file);
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = threads.getThreadAllocatedBytes(tid) - allocated;
+
+		double mib = file.length() * (double) ROUNDS / (1024 * 1024);
+		System.out.printf("%-8s %8.1f MiB/s %10d bytes allocated/hash%n", name, mib / (elapsed / 1e9), allocated / ROUNDS);
+		return hash;
+	}
+}
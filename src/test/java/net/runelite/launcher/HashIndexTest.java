@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HashIndexTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testHash() throws IOException
+	{
+		File dir = folder.getRoot();
+		File file = write(new File(dir, "a.jar"), "aaaa");
+
+		HashIndex index = new HashIndex(dir);
+		Assert.assertEquals(sha256("aaaa"), index.hash(file));
+		index.save();
+
+		// a stale entry is still trusted while the file metadata matches
+		HashIndex reloaded = new HashIndex(dir);
+		reloaded.record(file, "cached");
+		Assert.assertEquals("cached", reloaded.hash(file));
+
+		// but not once the file changes
+		write(file, "bbbb");
+		Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+		Assert.assertEquals(sha256("bbbb"), reloaded.hash(file));
+	}
+
+	@Test
+	public void testPersist() throws IOException
+	{
+		File dir = folder.getRoot();
+		File file = write(new File(dir, "a.jar"), "aaaa");
+
+		HashIndex index = new HashIndex(dir);
+		index.record(file, "recorded");
+		index.save();
+
+		Assert.assertEquals("recorded", new HashIndex(dir).hash(file));
+
+		Assert.assertTrue(file.delete());
+		index.save();
+		Assert.assertFalse(Files.readString(new File(dir, HashIndex.INDEX_NAME).toPath()).contains("a.jar"));
+	}
+
+	@Test
+	public void testSubdirectory() throws IOException
+	{
+		File dir = folder.getRoot();
+		File objects = folder.newFolder("objects");
+		File file = write(new File(objects, "a.jar"), "aaaa");
+		File top = write(new File(dir, "a.jar"), "bbbb");
+
+		HashIndex index = new HashIndex(dir);
+		index.record(file, "nested");
+		index.record(top, "top");
+		index.save();
+
+		// files in subdirectories are kept by save and don't collide with files of the same name
+		HashIndex reloaded = new HashIndex(dir);
+		Assert.assertEquals("nested", reloaded.hash(file));
+		Assert.assertEquals("top", reloaded.hash(top));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutside() throws IOException
+	{
+		new HashIndex(new File(folder.getRoot(), "repository")).hash(write(folder.newFile("a.jar"), "aaaa"));
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testMissing() throws IOException
+	{
+		new HashIndex(folder.getRoot()).hash(new File(folder.getRoot(), "missing.jar"));
+	}
+
+	private static File write(File file, String contents) throws IOException
+	{
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String sha256(String contents)
+	{
+		return Hashing.sha256().hashString(contents, StandardCharsets.UTF_8).toString();
+	}
+}
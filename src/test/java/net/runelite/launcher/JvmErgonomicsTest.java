@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JvmErgonomicsTest
+{
+	private static final long GIB = 1024L * 1024 * 1024;
+
+	@Test
+	public void testSingleCore()
+	{
+		JvmErgonomics ergonomics = new JvmErgonomics(new JvmErgonomics.Machine(2 * GIB, 1, false, false, false), null, null);
+		Assert.assertEquals(Arrays.asList("-Dfoo=bar", "-Xmx768m", "-XX:+UseSerialGC"),
+			ergonomics.apply(Arrays.asList("-Xmx768m", "-Dfoo=bar")));
+	}
+
+	@Test
+	public void testHeapBounds()
+	{
+		// a quarter of memory, but never below what the bootstrap asks for
+		List<String> args = new JvmErgonomics(new JvmErgonomics.Machine(8 * GIB, 4, false, false, false), null, null, gc -> false)
+			.apply(Arrays.asList("-Xmx1g"));
+		Assert.assertEquals("-Xmx2048m", args.get(0));
+		Assert.assertTrue(args.contains("-XX:ParallelGCThreads=3"));
+		Assert.assertTrue(args.contains("-XX:ConcGCThreads=1"));
+
+		// capped at half of memory on small machines
+		args = new JvmErgonomics(new JvmErgonomics.Machine(GIB, 2, false, false, false), null, null)
+			.apply(Arrays.asList("-Xmx768m"));
+		Assert.assertEquals("-Xmx512m", args.get(0));
+		Assert.assertTrue(args.contains("-XX:+UseG1GC"));
+	}
+
+	@Test
+	public void testLowPauseCollector()
+	{
+		JvmErgonomics.Machine machine = new JvmErgonomics.Machine(16 * GIB, 8, false, false, false);
+		List<String> args = new JvmErgonomics(machine, null, null, gc -> true).apply(Arrays.asList("-Xmx768m"));
+		Assert.assertTrue(args.contains("-XX:+UseZGC"));
+
+		// declared but not built into the client's JVM
+		args = new JvmErgonomics(machine, null, null, gc -> gc != JvmErgonomics.GarbageCollector.ZGC && gc != JvmErgonomics.GarbageCollector.SHENANDOAH)
+			.apply(Arrays.asList("-Xmx768m"));
+		Assert.assertTrue(args.contains("-XX:+UseG1GC"));
+	}
+
+	@Test
+	public void test32Bit()
+	{
+		JvmErgonomics.Machine machine = new JvmErgonomics.Machine(16 * GIB, 8, false, false, true);
+		Assert.assertEquals("-Xmx1024m", new JvmErgonomics(machine, null, null, gc -> false).apply(Arrays.asList("-Xmx768m")).get(0));
+		Assert.assertEquals("-Xmx1024m", new JvmErgonomics(machine, 3000, null, gc -> false).apply(Arrays.asList("-Xmx768m")).get(0));
+	}
+
+	@Test
+	public void testOverrides()
+	{
+		JvmErgonomics ergonomics = new JvmErgonomics(new JvmErgonomics.Machine(16 * GIB, 8, false, true, false), 1024, JvmErgonomics.GarbageCollector.SERIAL);
+		Assert.assertEquals(Arrays.asList("-Xmx1024m", "-XX:+UseSerialGC"),
+			ergonomics.apply(Arrays.asList("-Xmx768m", "-XX:+UseG1GC")));
+	}
+
+	@Test
+	public void testParseSize()
+	{
+		Assert.assertEquals(768L * 1024 * 1024, JvmErgonomics.parseSize("768", "m"));
+		Assert.assertEquals(2 * GIB, JvmErgonomics.parseSize("2", "G"));
+		Assert.assertEquals(4096, JvmErgonomics.parseSize("4", "k"));
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PatchPlannerTest
+{
+	@Test
+	public void testChain()
+	{
+		Artifact artifact = artifact(1000,
+			diff("a-b", "a", "b", 100),
+			diff("b-c", "b", null, 100),
+			diff("a-c", "a", null, 500));
+
+		Assert.assertEquals(Arrays.asList("a-b", "b-c"), names(PatchPlanner.plan(artifact, d -> d.getFromHash().equals("a"))));
+		// a single hop from a newer version is cheaper still
+		Assert.assertEquals(Arrays.asList("b-c"), names(PatchPlanner.plan(artifact, d -> true)));
+	}
+
+	@Test
+	public void testFullDownloadCheaper()
+	{
+		Artifact artifact = artifact(150,
+			diff("a-b", "a", "b", 100),
+			diff("b-c", "b", null, 100));
+
+		Assert.assertNull(PatchPlanner.plan(artifact, d -> d.getFromHash().equals("a")));
+	}
+
+	@Test
+	public void testUnreachable()
+	{
+		Artifact artifact = artifact(1000,
+			diff("a-b", "a", "b", 100),
+			diff("c-d", "c", null, 100));
+
+		Assert.assertNull(PatchPlanner.plan(artifact, d -> d.getFromHash().equals("a")));
+		Assert.assertNull(PatchPlanner.plan(artifact, d -> false));
+	}
+
+	private static Artifact artifact(int size, Diff... diffs)
+	{
+		Artifact artifact = new Artifact();
+		artifact.setName("client.jar");
+		artifact.setHash("target");
+		artifact.setSize(size);
+		artifact.setDiffs(diffs);
+		return artifact;
+	}
+
+	private static Diff diff(String name, String from, String to, int size)
+	{
+		Diff diff = new Diff();
+		diff.setName(name);
+		diff.setFromHash(from);
+		diff.setToHash(to);
+		diff.setSize(size);
+		return diff;
+	}
+
+	private static List<String> names(List<Diff> diffs)
+	{
+		return diffs.stream().map(Diff::getName).collect(Collectors.toList());
+	}
+}
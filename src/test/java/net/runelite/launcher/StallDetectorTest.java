@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, SanLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StallDetectorTest
+{
+	private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(1);
+
+	@Test(timeout = 20_000)
+	public void testBusyConsumer() throws Exception
+	{
+		byte[] data = new byte[3 * 4096];
+		try (InputStream in = StallDetector.watch("busy", IDLE_TIMEOUT, new ByteArrayInputStream(data)))
+		{
+			byte[] buffer = new byte[4096];
+			int total = 0;
+			for (int n; (n = in.read(buffer)) != -1; )
+			{
+				total += n;
+				// eg. applying a patch, which leaves the stream unread for longer than the idle timeout
+				Thread.sleep(2500);
+			}
+			Assert.assertEquals(data.length, total);
+		}
+	}
+
+	@Test(timeout = 20_000, expected = StallDetector.StalledException.class)
+	public void testStalledSource() throws IOException
+	{
+		InputStream source = new InputStream()
+		{
+			@Override
+			public int read() throws IOException
+			{
+				try
+				{
+					Thread.sleep(60_000);
+				}
+				catch (InterruptedException ex)
+				{
+					throw new InterruptedIOException();
+				}
+				return -1;
+			}
+		};
+
+		try (InputStream in = StallDetector.watch("stalled", IDLE_TIMEOUT, source))
+		{
+			in.read(new byte[4096]);
+		}
+	}
+}